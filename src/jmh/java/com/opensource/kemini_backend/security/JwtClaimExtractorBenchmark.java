@@ -0,0 +1,69 @@
+package com.opensource.kemini_backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증 필터의 JWT payload 파싱 비용 비교
+ *
+ * - splitAndJsonObject: 기존 방식 (String.split 정규식 + String 생성 + org.json 전체 파싱)
+ * - claimExtractor: JwtClaimExtractor (indexOf + payload만 디코딩 + Jackson 스트리밍)
+ *
+ * 실행: ./gradlew jmh -PjmhIncludes=JwtClaimExtractorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtClaimExtractorBenchmark {
+
+    private String token;
+    private JwtClaimExtractor extractor;
+
+    @Setup
+    public void setUp() {
+        // Cognito Access Token과 같은 구성의 payload (서명 부분은 측정과 무관하므로 임의 값)
+        String header = "{\"kid\":\"abcdefghijklmnopqrstuvwxyz0123456789ABCDEFG=\",\"alg\":\"RS256\"}";
+        String payload = "{\"sub\":\"8c1d5a2e-1234-4f6a-9b0c-7d8e9f0a1b2c\","
+            + "\"iss\":\"https://cognito-idp.ap-northeast-2.amazonaws.com/ap-northeast-2_AbCdEfGhI\","
+            + "\"client_id\":\"1example23456789abcdefghij\","
+            + "\"origin_jti\":\"6b1d3c4e-5f60-4a7b-8c9d-0e1f2a3b4c5d\","
+            + "\"event_id\":\"0a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d\","
+            + "\"token_use\":\"access\",\"scope\":\"aws.cognito.signin.user.admin\","
+            + "\"auth_time\":1760000000,\"exp\":1760003600,\"iat\":1760000000,"
+            + "\"jti\":\"9f8e7d6c-5b4a-3928-1706-f5e4d3c2b1a0\","
+            + "\"username\":\"user@example.com\"}";
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        token = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8))
+            + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + "." + encoder.encodeToString(new byte[256]);
+
+        extractor = new JwtClaimExtractor(new ObjectMapper());
+    }
+
+    @Benchmark
+    public String splitAndJsonObject() {
+        String[] parts = token.split("\\.");
+        byte[] decodedBytes = Base64.getUrlDecoder().decode(parts[1]);
+        String payload = new String(decodedBytes, StandardCharsets.UTF_8);
+        JSONObject jsonPayload = new JSONObject(payload);
+        return jsonPayload.optString("username", null);
+    }
+
+    @Benchmark
+    public String claimExtractor() {
+        return extractor.extract(token).username();
+    }
+}
@@ -0,0 +1,48 @@
+package com.opensource.kemini_backend.utility;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SECRET_HASH 계산 비용 비교 (동시 로그인 상황을 가정해 16개 스레드로 측정)
+ *
+ * - util: 기존 CognitoSecretHashUtil (호출마다 Mac.getInstance + init + SecretKeySpec 생성)
+ * - engine: CognitoSecretHashEngine (시작 시 키 설정, Mac/버퍼 재사용)
+ *
+ * 실행: ./gradlew jmh -PjmhIncludes=CognitoSecretHashBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(16)
+public class CognitoSecretHashBenchmark {
+
+    private static final String CLIENT_ID = "1example23456789abcdefghij";
+    private static final String CLIENT_SECRET = "example0client0secret0abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final String USER_NAME = "user@example.com";
+
+    private CognitoSecretHashEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new CognitoSecretHashEngine(CLIENT_ID, CLIENT_SECRET, 64);
+    }
+
+    @Benchmark
+    public String util() {
+        return CognitoSecretHashUtil.calculateSecretHash(CLIENT_ID, CLIENT_SECRET, USER_NAME);
+    }
+
+    @Benchmark
+    public String engine() {
+        return engine.calculate(USER_NAME);
+    }
+}
@@ -2,8 +2,10 @@ package com.opensource.kemini_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // JWKS 주기적 갱신 등 스케줄 작업 활성화
 public class KeminiBackendApplication {
 
 	public static void main(String[] args) {
@@ -1,29 +1,109 @@
 package com.opensource.kemini_backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+
+/**
+ * 외부 서버(AI 서버 등)와의 HTTP 통신 설정
+ *
+ * HttpURLConnection 대신 Apache HttpClient 5의 연결 풀을 사용하여
+ * keep-alive 연결을 재사용하고, 목적지별 연결 수 제한과 풀 지표(httpcomponents.httpclient.pool.*)를 제공합니다.
+ */
 @Configuration
 public class AppConfig {
 
+    // 외부 호출용 연결 풀 (목적지(route)별 최대 연결 수 + 전체 최대 연결 수)
+    @Bean
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+        MeterRegistry meterRegistry,
+        @Value("${outbound.http.max-total:100}") int maxTotal,
+        @Value("${outbound.http.max-per-route:20}") int maxPerRoute,
+        @Value("${outbound.http.connect-timeout-ms:10000}") long connectTimeoutMillis,
+        // 응답 읽기(소켓) 타임아웃: Nginx가 300초이므로 동일하게 맞춤
+        @Value("${outbound.http.read-timeout-ms:300000}") long readTimeoutMillis,
+        @Value("${outbound.http.validate-after-inactivity-ms:2000}") long validateAfterInactivityMillis,
+        @Value("${ai.server.urls:${ai.server.url}}") String[] aiServerUrls,
+        @Value("${ai.server.max-connections:8}") int aiMaxConnections) {
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                // 오래 쉬던 연결은 재사용 전에 끊겼는지 확인
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMillis))
+                .build())
+            .build();
+
+        // AI 서버(백엔드별)는 별도의 연결 수 제한 적용
+        for (String aiServerUrl : aiServerUrls) {
+            if (!aiServerUrl.isBlank()) {
+                connectionManager.setMaxPerRoute(routeOf(aiServerUrl.strip()), aiMaxConnections);
+            }
+        }
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient outboundHttpClient(
+        PoolingHttpClientConnectionManager outboundConnectionManager,
+        // 풀에서 연결을 얻기까지 기다리는 최대 시간 (풀이 가득 찼을 때)
+        @Value("${outbound.http.pool-acquire-timeout-ms:5000}") long poolAcquireTimeoutMillis,
+        // 요청 전송 후 응답 헤더를 받기까지의 최대 시간
+        @Value("${outbound.http.response-timeout-ms:300000}") long responseTimeoutMillis,
+        @Value("${outbound.http.idle-eviction-ms:30000}") long idleEvictionMillis) {
+
+        return HttpClients.custom()
+            .setConnectionManager(outboundConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMillis))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                .build())
+            // 일정 시간 사용하지 않은 연결과 만료된 연결은 백그라운드에서 정리
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMillis))
+            .evictExpiredConnections()
+            .build();
+    }
+
+    // 외부 호출은 모두 이 팩토리(연결 풀)를 통해 나감
+    @Bean
+    public ClientHttpRequestFactory outboundRequestFactory(CloseableHttpClient outboundHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+    }
+
     // Spring이 다른 서버와 HTTP 통신을 할 때 사용할 RestTemplate Bean
     @Bean
-    public RestTemplate restTemplate() {
-        // 기본 RestTemplate 대신 팩토리를 사용
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-
-        // 타임아웃 설정 (단위: 밀리초)
-        // Nginx가 300초(300,000ms)이므로, 동일하게 맞춥니다.
-        
-        // 연결(Connection) 타임아웃: 10초
-        factory.setConnectTimeout(10 * 1000);
-        
-        // 응답 읽기(Read) 타임아웃: 300초 (이것이 핵심)
-        factory.setReadTimeout(300 * 1000); 
-
-        // 타임아웃이 설정된 팩토리로 RestTemplate 생성
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(ClientHttpRequestFactory outboundRequestFactory) {
+        return new RestTemplate(outboundRequestFactory);
+    }
+
+    // 풀의 route와 같도록 기본 포트를 채우고 https 여부를 반영
+    private static HttpRoute routeOf(String url) {
+        URI uri = URI.create(url);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClientBuilder;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
+
+import java.net.URI;
 
 @Configuration
 public class AwsCognitoConfig {
@@ -12,10 +17,28 @@ public class AwsCognitoConfig {
     @Value("${aws.cognito.region}")
     private String region;
 
+    // 로컬 Cognito 대체 서버(cognito-local, moto 등)로 테스트할 때만 지정 (예: http://localhost:9229)
+    @Value("${aws.cognito.endpoint:}")
+    private String endpoint;
+
     @Bean
     public CognitoIdentityProviderClient cognitoClient() {
-        return CognitoIdentityProviderClient.builder()
-                .region(Region.of(region)) 
-                .build();
+        CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder()
+                .region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    // 회원가입처럼 Cognito 호출을 연달아 하는 흐름에서 스레드를 붙잡지 않기 위한 비동기 클라이언트
+    @Bean
+    public CognitoIdentityProviderAsyncClient cognitoAsyncClient() {
+        CognitoIdentityProviderAsyncClientBuilder builder = CognitoIdentityProviderAsyncClient.builder()
+                .region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
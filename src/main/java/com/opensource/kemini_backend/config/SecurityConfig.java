@@ -1,5 +1,6 @@
 package com.opensource.kemini_backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,33 +10,71 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.opensource.kemini_backend.filter.AuthRateLimitFilter;
 import com.opensource.kemini_backend.filter.CognitoHeaderAuthenticationFilter;
 import com.opensource.kemini_backend.exception.CustomAccessDeniedHandler;
 import com.opensource.kemini_backend.exception.CustomAuthenticationEntryPoint;
+import com.opensource.kemini_backend.security.AccessTokenCache;
+import com.opensource.kemini_backend.security.AuthRateLimiter;
+import com.opensource.kemini_backend.security.CognitoAccessTokenVerifier;
+import com.opensource.kemini_backend.security.CognitoRemoteTokenValidator;
+import com.opensource.kemini_backend.security.RevokedTokenDenylist;
+import com.opensource.kemini_backend.security.TokenValidationMode;
+import com.opensource.kemini_backend.security.UserIdResolver;
 
-import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    // 1. CognitoClient를 주입받기 위한 필드 및 생성자 추가
-    private final CognitoIdentityProviderClient cognitoClient;
+    // 1. 토큰 검증기(Cognito 원격/로컬)를 주입받기 위한 필드 및 생성자 추가
+    private final CognitoRemoteTokenValidator remoteValidator;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
+    private final CognitoAccessTokenVerifier tokenVerifier;
+    private final AccessTokenCache tokenCache;
+    private final RevokedTokenDenylist denylist;
+    private final UserIdResolver userIdResolver;
+    private final AuthRateLimiter authRateLimiter;
+
+    // 토큰 검증 방식 (LOCAL: JWKS 로컬 검증 / REMOTE: Cognito GetUser / LOCAL_AND_REMOTE: 둘 다)
+    @Value("${auth.token.validation-mode:LOCAL}")
+    private TokenValidationMode tokenValidationMode;
+
+    // 관리자 API(/api/v1/admin/**) 접근을 허용할 계정 이메일 목록 (쉼표 구분)
+    @Value("${admin.emails:}")
+    private Set<String> adminEmails;
+
+    // 요청 제한 시 X-Forwarded-For에서 신뢰할 앞단 프록시 개수 (기본 0: 접속 IP 사용)
+    // 프록시 없이 노출된 서버에서 X-Forwarded-For를 믿으면 헤더 위조로 제한을 우회할 수 있으므로,
+    // ALB/Nginx 뒤에 배포할 때만 프록시 수만큼 지정
+    @Value("${auth.rate-limit.trusted-proxy-hops:0}")
+    private int trustedProxyHops;
 
     public SecurityConfig(
-        CognitoIdentityProviderClient cognitoClient,
+        CognitoRemoteTokenValidator remoteValidator,
         CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
-        CustomAccessDeniedHandler customAccessDeniedHandler ) {
-        this.cognitoClient = cognitoClient;
+        CustomAccessDeniedHandler customAccessDeniedHandler,
+        CognitoAccessTokenVerifier tokenVerifier,
+        AccessTokenCache tokenCache,
+        RevokedTokenDenylist denylist,
+        UserIdResolver userIdResolver,
+        AuthRateLimiter authRateLimiter ) {
+        this.remoteValidator = remoteValidator;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
         this.customAccessDeniedHandler = customAccessDeniedHandler;
+        this.tokenVerifier = tokenVerifier;
+        this.tokenCache = tokenCache;
+        this.denylist = denylist;
+        this.userIdResolver = userIdResolver;
+        this.authRateLimiter = authRateLimiter;
     }
 
-    // 2. Filter를 Bean으로 정의하고 CognitoClient 주입
+    // 2. Filter를 Bean으로 정의하고 원격/로컬 토큰 검증기, 토큰 캐시, 사용자 ID 캐시 주입
     @Bean
     public CognitoHeaderAuthenticationFilter cognitoHeaderAuthenticationFilter() {
-        return new CognitoHeaderAuthenticationFilter(cognitoClient);
+        return new CognitoHeaderAuthenticationFilter(
+            remoteValidator, tokenVerifier, tokenValidationMode, tokenCache, denylist, userIdResolver, adminEmails);
     }
 
     @Bean
@@ -52,6 +91,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // 회원가입, 로그인, 확인 경로는 인증 없이 접근 허용
                 .requestMatchers("/api/v1/auth/**").permitAll() 
+
+                // 관리자 API는 ROLE_ADMIN 필요
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                 
                 // 그 외 모든 경로는 인증 필수
                 .anyRequest().authenticated()
@@ -63,6 +105,12 @@ public class SecurityConfig {
             .addFilterBefore(
                 cognitoHeaderAuthenticationFilter(), 
                 UsernamePasswordAuthenticationFilter.class
+            )
+            // 인증 없는 /api/v1/auth/** 요청 제한 (토큰 검증보다 먼저 실행)
+            // Bean으로 등록하면 서블릿 필터로도 등록되어 토큰이 두 번 차감되므로 여기서만 생성
+            .addFilterBefore(
+                new AuthRateLimitFilter(authRateLimiter, trustedProxyHops),
+                CognitoHeaderAuthenticationFilter.class
             );
 
         // 4. 기존 Spring Security의 기본 로그인 페이지 비활성화 (이전 문제에서 본 페이지)
@@ -1,47 +1,120 @@
 package com.opensource.kemini_backend.controller;
 
+import com.opensource.kemini_backend.dto.ApiResponse;
+import com.opensource.kemini_backend.dto.ModelJobDto;
+import com.opensource.kemini_backend.security.AuthenticatedUser;
 import com.opensource.kemini_backend.service.AIService;
+import com.opensource.kemini_backend.service.ModelGenerationJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 
 @RestController
 @RequestMapping("/api/v1/ai")
 public class AIController {
 
     private final AIService aiService;
+    private final ModelGenerationJobService jobService;
 
-    public AIController(AIService aiService) {
+    public AIController(AIService aiService, ModelGenerationJobService jobService) {
         this.aiService = aiService;
+        this.jobService = jobService;
     }
 
-
-    // Unity 클라이언트로부터 이미지를 받아 AI 서버로 중계(proxy)하는 API
-    @PostMapping("/generate-model")
-    public ResponseEntity<byte[]> generateModel(
+    // AI 모델 생성 작업 등록 API (바로 작업 ID 반환, 202 Accepted)
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiResponse<ModelJobDto>> submitJob(
             @RequestParam("file") MultipartFile file,
-            @AuthenticationPrincipal String authenticatedEmail
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        
-        System.out.println("AI 모델 생성 요청 (사용자: " + authenticatedEmail + ")");
+        ModelJobDto job = jobService.submit(principal.userId(), file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/ai/jobs/" + job.jobId()))
+                .body(ApiResponse.success(job, "AI 모델 생성 작업이 등록되었습니다."));
+    }
+
+    // 작업 상태 조회 API (폴링)
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ModelJobDto>> getJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        ModelJobDto job = jobService.getJob(principal.userId(), jobId);
+        return ResponseEntity.ok(ApiResponse.success(job, "작업 상태 조회 성공"));
+    }
+
+    // 작업 상태 구독 API (Server-Sent Events, 'status' 이벤트)
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return jobService.subscribe(principal.userId(), jobId);
+    }
 
-        // 1. AIService가 (API 키 없이) AI 서버와 통신하고 .glb(byte[])를 가져옴
-        byte[] aiResponseBytes = aiService.generate3DModel(file);
+    // 완료된 작업의 .glb 파일 다운로드 API (파일에서 바로 스트리밍)
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<Resource> getJobResult(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        Path result = jobService.getResultFile(principal.userId(), jobId);
 
-        // 2. Unity에게 이게 .glb 파일이라고 알려주는 헤더 생성
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.valueOf("model/gltf-binary"));
         headers.setContentDispositionFormData("attachment", "generated_model.glb");
 
-        // 3. Unity로 .glb 파일(byte[])을 직접 반환
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(aiResponseBytes);
+                .body(new FileSystemResource(result));
+    }
+
+
+    // Unity 클라이언트로부터 이미지를 받아 AI 서버로 중계(proxy)하는 API
+    // (AI 서버 응답까지 요청 스레드를 점유하므로 새 클라이언트는 /jobs API 사용 권장)
+    // 생성된 .glb를 byte[]로 모으지 않고 AI 서버 응답을 그대로 Unity로 흘려보냄
+    @PostMapping("/generate-model")
+    public void generateModel(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response
+    ) throws IOException {
+        
+        System.out.println("AI 모델 생성 요청 (사용자: " + principal.email() + ")");
+
+        // 1. AIService가 (API 키 없이) AI 서버와 통신하고 .glb 응답 스트림을 가져옴
+        //    (AI 서버 오류는 아직 응답을 쓰기 전이므로 GlobalExceptionHandler가 처리)
+        try (AIService.ModelStream model = aiService.generate3DModel(file)) {
+
+            // 2. Unity에게 이게 .glb 파일이라고 알려주는 헤더 생성
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.valueOf("model/gltf-binary"));
+            headers.setContentDispositionFormData("attachment", "generated_model.glb");
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            if (model.contentLength() >= 0) {
+                response.setContentLengthLong(model.contentLength());
+            }
+
+            // 3. Unity로 .glb 파일을 스트리밍으로 전달
+            model.transferTo(response.getOutputStream());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.opensource.kemini_backend.controller;
+
+import com.opensource.kemini_backend.dto.AccountPurgeJobDto;
+import com.opensource.kemini_backend.dto.ApiResponse;
+import com.opensource.kemini_backend.dto.BulkSignUpRequestDto;
+import com.opensource.kemini_backend.dto.BulkSignUpResultDto;
+import com.opensource.kemini_backend.service.AccountPurgeService;
+import com.opensource.kemini_backend.service.UserProvisioningService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 관리자 전용 API (ROLE_ADMIN, admin.emails 설정에 등록된 계정만 접근 가능)
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final UserProvisioningService provisioningService;
+    private final AccountPurgeService accountPurgeService;
+
+    public AdminController(UserProvisioningService provisioningService, AccountPurgeService accountPurgeService) {
+        this.provisioningService = provisioningService;
+        this.accountPurgeService = accountPurgeService;
+    }
+
+    // 사용자 대량 등록 API (고객사 현장 단위 온보딩)
+    @PostMapping("/users/bulk")
+    public ResponseEntity<ApiResponse<BulkSignUpResultDto>> bulkSignUp(
+        @RequestBody BulkSignUpRequestDto request
+    ) {
+        BulkSignUpResultDto result = provisioningService.provision(request.users());
+
+        String message = String.format("대량 등록 완료 (성공 %d건 / 실패 %d건)", result.succeeded(), result.failed());
+        return ResponseEntity.ok(ApiResponse.success(result, message));
+    }
+
+    // 탈퇴한 사용자의 데이터 정리 작업 진행 상황 조회
+    @GetMapping("/users/{userId}/purge")
+    public ResponseEntity<ApiResponse<AccountPurgeJobDto>> getPurgeStatus(@PathVariable Long userId) {
+        AccountPurgeJobDto job = accountPurgeService.getStatus(userId)
+            .orElseThrow(() -> new RuntimeException("데이터 정리 작업을 찾을 수 없습니다."));
+        return ResponseEntity.ok(ApiResponse.success(job, "데이터 정리 작업 조회 성공"));
+    }
+}
@@ -7,37 +7,44 @@ import com.opensource.kemini_backend.dto.FindEmailRequestDto;
 import com.opensource.kemini_backend.dto.FindPasswordStep1RequestDto;
 import com.opensource.kemini_backend.dto.FindPasswordStep2RequestDto;
 import com.opensource.kemini_backend.dto.SignUpRequestDto;
+import com.opensource.kemini_backend.service.SecurityQuestionCatalog;
 import com.opensource.kemini_backend.service.UserService;
 import com.opensource.kemini_backend.dto.LoginRequestDto;
 import com.opensource.kemini_backend.dto.RefreshTokenRequestDto;
 import com.opensource.kemini_backend.dto.ResetPasswordByQuestionRequestDto;
-import com.opensource.kemini_backend.dto.SecurityQuestionResponseDto;
 
 import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthResponse;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
     private final UserService userService;
+    private final SecurityQuestionCatalog securityQuestionCatalog;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, SecurityQuestionCatalog securityQuestionCatalog) {
         this.userService = userService;
+        this.securityQuestionCatalog = securityQuestionCatalog;
     }
 
     // 회원가입 API
+    // (비동기 처리: Cognito 응답을 기다리는 동안 서블릿 스레드를 반환)
     @PostMapping("/signup")
-    public ResponseEntity<ApiResponse<Void>> signUp(@RequestBody SignUpRequestDto request) {
-        userService.signUp(request);
+    public CompletableFuture<ResponseEntity<ApiResponse<Void>>> signUp(@RequestBody SignUpRequestDto request) {
         // 3. ApiResponse.success(메시지)로 래핑
         // return ResponseEntity.ok(ApiResponse.success("회원가입 성공. 이메일로 발송된 코드를 확인해주세요."));
-        return ResponseEntity.ok(ApiResponse.success("회원가입 성공. 즉시 로그인할 수 있습니다."));
+        return userService.signUp(request)
+            .thenApply(done -> ResponseEntity.ok(ApiResponse.success("회원가입 성공. 즉시 로그인할 수 있습니다.")));
     }
     
     // 로그인 API
@@ -141,14 +148,23 @@ public class AuthController {
     }
     
     // 보안 질문 목록 조회 API
+    // 미리 직렬화해 둔 JSON을 ETag와 함께 반환하고, If-None-Match가 일치하면 304 (DB 조회/직렬화 없음)
     @GetMapping("/questions")
-    public ResponseEntity<ApiResponse<List<SecurityQuestionResponseDto>>> getSecurityQuestions() {
+    public ResponseEntity<byte[]> getSecurityQuestions(WebRequest webRequest) {
 
-        List<SecurityQuestionResponseDto> questions = userService.getSecurityQuestions();
+        SecurityQuestionCatalog.Snapshot snapshot = securityQuestionCatalog.current();
 
-        return ResponseEntity.ok(ApiResponse.success(
-                questions,
-                "보안 질문 목록 조회에 성공했습니다."));
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
     
     // 아이디(이메일) 중복 확인 API
@@ -1,10 +1,12 @@
 package com.opensource.kemini_backend.controller;
 
 import com.opensource.kemini_backend.dto.*;
+import com.opensource.kemini_backend.security.AuthenticatedUser;
 import com.opensource.kemini_backend.service.EnvironmentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -21,11 +23,11 @@ public class EnvironmentController {
     // 새 가상환경 생성 API
     @PostMapping
     public ResponseEntity<ApiResponse<VirtualEnvironmentResponseDto>> createEnvironment(
-            @AuthenticationPrincipal String authenticatedEmail,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody VirtualEnvironmentRequestDto request
     ) {
         VirtualEnvironmentResponseDto responseDto = environmentService.createEnvironment(
-            authenticatedEmail, 
+            principal.userId(), 
             request
         );
         return ResponseEntity.ok(ApiResponse.success(responseDto, "가상환경이 생성되었습니다."));
@@ -34,25 +36,41 @@ public class EnvironmentController {
     // 파일 업로드 URL 요청 API
     @PostMapping("/{envId}/request-upload")
     public ResponseEntity<ApiResponse<S3PresignedUrlResponseDto>> requestUploadUrl(
-            @AuthenticationPrincipal String authenticatedEmail,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable("envId") Long envId,
             @RequestBody S3PresignedUrlRequestDto request
     ) {
         S3PresignedUrlResponseDto responseDto = environmentService.generateUploadUrl(
-            authenticatedEmail, 
+            principal.userId(), 
             envId, 
             request
         );
         return ResponseEntity.ok(ApiResponse.success(responseDto, "업로드 URL이 생성되었습니다."));
     }
 
+    // AI 3D 모델 생성 후 가상환경 파일(MODEL)로 바로 저장하는 API
+    // (.glb 대신 저장된 파일 ID와 URL을 반환 → 클라이언트가 다시 업로드할 필요 없음)
+    @PostMapping("/{envId}/generate-model")
+    public ResponseEntity<ApiResponse<EnvironmentFileDto>> generateModel(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable("envId") Long envId,
+            @RequestParam("file") MultipartFile file
+    ) {
+        EnvironmentFileDto responseDto = environmentService.saveGeneratedModel(
+            principal.userId(),
+            envId,
+            file
+        );
+        return ResponseEntity.ok(ApiResponse.success(responseDto, "3D 모델이 생성되어 저장되었습니다."));
+    }
+
     // 내 모든 가상환경 조회 API
     @GetMapping
     public ResponseEntity<ApiResponse<List<VirtualEnvironmentResponseDto>>> getAllMyEnvironments(
-            @AuthenticationPrincipal String authenticatedEmail
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
         List<VirtualEnvironmentResponseDto> responseDtoList = 
-            environmentService.getAllEnvironments(authenticatedEmail);
+            environmentService.getAllEnvironments(principal.userId());
         
         return ResponseEntity.ok(ApiResponse.success(
             responseDtoList, 
@@ -63,11 +81,11 @@ public class EnvironmentController {
     // 특정 가상환경 상세 조회 API
     @GetMapping("/{envId}")
     public ResponseEntity<ApiResponse<VirtualEnvironmentResponseDto>> getEnvironmentById(
-            @AuthenticationPrincipal String authenticatedEmail,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable("envId") Long envId
     ) {
         VirtualEnvironmentResponseDto responseDto = 
-            environmentService.getEnvironmentById(authenticatedEmail, envId);
+            environmentService.getEnvironmentById(principal.userId(), envId);
         
         return ResponseEntity.ok(ApiResponse.success(
             responseDto, 
@@ -78,11 +96,11 @@ public class EnvironmentController {
     // 가상환경 이름 수정 API
     @PutMapping("/{envId}")
     public ResponseEntity<ApiResponse<VirtualEnvironmentResponseDto>> updateEnvironmentName(
-            @AuthenticationPrincipal String authenticatedEmail,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable("envId") Long envId,
             @RequestBody VirtualEnvironmentRequestDto request
     ) {
-        VirtualEnvironmentResponseDto responseDto = environmentService.updateEnvironmentName(authenticatedEmail, envId,
+        VirtualEnvironmentResponseDto responseDto = environmentService.updateEnvironmentName(principal.userId(), envId,
                 request);
 
         return ResponseEntity.ok(ApiResponse.success(
@@ -93,10 +111,10 @@ public class EnvironmentController {
     // 가상환경 삭제 API
     @DeleteMapping("/{envId}")
     public ResponseEntity<ApiResponse<Void>> deleteEnvironment(
-            @AuthenticationPrincipal String authenticatedEmail,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable("envId") Long envId
     ) {
-        environmentService.deleteEnvironment(authenticatedEmail, envId);
+        environmentService.deleteEnvironment(principal.userId(), envId);
         
         return ResponseEntity.ok(ApiResponse.success("가상환경이 삭제되었습니다."));
     }
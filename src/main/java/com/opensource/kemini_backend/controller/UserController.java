@@ -1,15 +1,19 @@
 package com.opensource.kemini_backend.controller;
 
+import com.opensource.kemini_backend.dto.AccountPurgeJobDto;
 import com.opensource.kemini_backend.dto.ApiResponse; // 1. ApiResponse import
 import com.opensource.kemini_backend.dto.ChangePasswordRequestDto;
 import com.opensource.kemini_backend.dto.UpdateUserRequestDto;
 import com.opensource.kemini_backend.dto.UserResponseDto;
+import com.opensource.kemini_backend.security.AuthenticatedUser;
 import com.opensource.kemini_backend.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import com.opensource.kemini_backend.filter.CognitoHeaderAuthenticationFilter;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserController {
@@ -22,32 +26,37 @@ public class UserController {
 
     // 내 정보 조회 API
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<UserResponseDto>> getMyInfo(@AuthenticationPrincipal String authenticatedEmail) {
-        UserResponseDto user = userService.getUserInfo(authenticatedEmail);
+    public ResponseEntity<ApiResponse<UserResponseDto>> getMyInfo(@AuthenticationPrincipal AuthenticatedUser principal) {
+        UserResponseDto user = userService.getUserInfo(principal.email());
         return ResponseEntity.ok(ApiResponse.success(user, "사용자 정보 조회 성공"));
     }
 
     // 내 정보 수정 API
     @PutMapping("/me")
     public ResponseEntity<ApiResponse<UserResponseDto>> updateMyInfo(
-        @AuthenticationPrincipal String authenticatedEmail,
+        @AuthenticationPrincipal AuthenticatedUser principal,
         @RequestBody UpdateUserRequestDto request
     ) {
-        userService.updateUser(authenticatedEmail, request); 
-        UserResponseDto updatedUser = userService.getUserInfo(authenticatedEmail);
+        userService.updateUser(principal.email(), request); 
+        UserResponseDto updatedUser = userService.getUserInfo(principal.email());
         
         return ResponseEntity.ok(ApiResponse.success(updatedUser, "사용자 정보 수정 성공"));
     }
 
     // 회원 탈퇴 API
     @DeleteMapping("/me")
-    public ResponseEntity<ApiResponse<Void>> deleteMyAccount(
-        @AuthenticationPrincipal String authenticatedEmail
+    public ResponseEntity<ApiResponse<?>> deleteMyAccount(
+        @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        userService.deleteUser(authenticatedEmail);
-        String message = String.format("계정(%s)이 성공적으로 삭제되었습니다.", authenticatedEmail);
-        
-        return ResponseEntity.ok(ApiResponse.success(message));
+        // 저장된 파일/가상환경은 백그라운드에서 정리됨 (진행 상황은 data로 반환)
+        Optional<AccountPurgeJobDto> purgeJob = userService.deleteUser(principal.email());
+        String message = String.format("계정(%s)이 성공적으로 삭제되었습니다.", principal.email());
+
+        // DB에 정리할 데이터가 없던 계정이면 data 없이 응답
+        ApiResponse<?> response = purgeJob.isPresent()
+            ? ApiResponse.success(purgeJob.get(), message)
+            : ApiResponse.success(message);
+        return ResponseEntity.ok(response);
     }
 
     // 비밀번호 변경하는 API
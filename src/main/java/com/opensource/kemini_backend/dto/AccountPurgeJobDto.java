@@ -0,0 +1,29 @@
+package com.opensource.kemini_backend.dto;
+
+import com.opensource.kemini_backend.model.AccountPurgeJob;
+
+import java.time.Instant;
+
+// 회원 탈퇴 데이터 정리 작업 진행 상황
+public record AccountPurgeJobDto(
+    Long userId,
+    String status,
+    long objectsDeleted,
+    long environmentsDeleted,
+    int attempts,
+    String lastError,
+    Instant createdAt,
+    Instant completedAt
+) {
+    public static AccountPurgeJobDto from(AccountPurgeJob job) {
+        return new AccountPurgeJobDto(
+            job.getUserId(),
+            job.getStatus().name(),
+            job.getObjectsDeleted(),
+            job.getEnvironmentsDeleted(),
+            job.getAttempts(),
+            job.getLastError(),
+            job.getCreatedAt(),
+            job.getCompletedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.opensource.kemini_backend.dto;
+
+import java.util.List;
+
+/*
+ * 관리자 대량 사용자 등록 요청 DTO
+ */
+public record BulkSignUpRequestDto(
+    List<SignUpRequestDto> users
+) {}
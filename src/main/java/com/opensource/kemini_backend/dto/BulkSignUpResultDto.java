@@ -0,0 +1,19 @@
+package com.opensource.kemini_backend.dto;
+
+import java.util.List;
+
+/**
+ * 관리자 대량 사용자 등록 결과 DTO (요청 순서대로 건별 결과 포함)
+ */
+public record BulkSignUpResultDto(
+    int total,
+    int succeeded,
+    int failed,
+    List<Item> results
+) {
+    public record Item(
+        String email,
+        boolean success,
+        String message
+    ) {}
+}
@@ -0,0 +1,25 @@
+package com.opensource.kemini_backend.dto;
+
+import com.opensource.kemini_backend.model.ModelGenerationJob;
+
+import java.time.Instant;
+
+// AI 모델 생성 작업 상태 (QUEUED, RUNNING, SUCCEEDED, FAILED)
+public record ModelJobDto(
+    String jobId,
+    String status,
+    Long resultSize,
+    String error,
+    Instant createdAt,
+    Instant completedAt
+) {
+    public static ModelJobDto from(ModelGenerationJob job) {
+        return new ModelJobDto(
+            job.getId(),
+            job.getStatus().name(),
+            job.getResultSize(),
+            job.getErrorMessage(),
+            job.getCreatedAt(),
+            job.getCompletedAt());
+    }
+}
@@ -2,6 +2,7 @@ package com.opensource.kemini_backend.exception;
 
 import com.opensource.kemini_backend.dto.ApiResponse;
 import com.opensource.kemini_backend.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -26,6 +27,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ApiResponse.error(error), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * 처리 용량 초과로 거절된 요청 (429 + Retry-After)
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTooManyRequests(TooManyRequestsException e) {
+        ErrorResponse error = new ErrorResponse("TOO_MANY_REQUESTS", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+            .body(ApiResponse.error(error));
+    }
+
     /**
      * UserService에서 발생하는 대부분의 런타임 예외 처리
      * (반환 타입을 ApiResponse<Void>로 변경)
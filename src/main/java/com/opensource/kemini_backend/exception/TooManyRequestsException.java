@@ -0,0 +1,18 @@
+package com.opensource.kemini_backend.exception;
+
+/**
+ * 처리 용량을 넘어 요청을 거절할 때 사용하는 예외 (429 + Retry-After로 변환됨)
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
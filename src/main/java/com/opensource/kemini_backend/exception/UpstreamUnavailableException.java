@@ -0,0 +1,12 @@
+package com.opensource.kemini_backend.exception;
+
+/**
+ * AI 서버 등 외부 서버의 일시적인 장애 (연결 실패, 5xx, 응답 대기 시간 초과)
+ * 같은 요청을 나중에 다시 보내면 성공할 수 있으므로, 비동기 작업은 이 예외일 때 재시도합니다.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.opensource.kemini_backend.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opensource.kemini_backend.dto.ApiResponse;
+import com.opensource.kemini_backend.dto.ErrorResponse;
+import com.opensource.kemini_backend.security.AuthRateLimiter;
+import com.opensource.kemini_backend.security.AuthRateLimiter.Group;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * /api/v1/auth/** 요청을 DB/Cognito 호출 전에 클라이언트별로 제한하는 필터
+ * 예산을 초과하면 바로 429 + Retry-After를 반환합니다.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH_PREFIX = "/api/v1/auth/";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final AuthRateLimiter rateLimiter;
+    // 앞단 프록시(Gateway/Nginx) 개수. 0이면 X-Forwarded-For를 무시하고 접속 IP 사용
+    private final int trustedProxyHops;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthRateLimitFilter(AuthRateLimiter rateLimiter, int trustedProxyHops) {
+        this.rateLimiter = rateLimiter;
+        this.trustedProxyHops = trustedProxyHops;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(AUTH_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Group group = resolveGroup(request.getRequestURI().substring(AUTH_PATH_PREFIX.length()));
+        long retryAfterSeconds = rateLimiter.tryAcquire(group, resolveClientIp(request));
+
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+
+            ErrorResponse errorResponse = new ErrorResponse("TOO_MANY_REQUESTS", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(errorResponse)));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // AuthController 경로 → 엔드포인트 그룹
+    private static Group resolveGroup(String path) {
+        if (path.startsWith("signup")) {
+            return Group.SIGN_UP;
+        }
+        if (path.startsWith("login") || path.startsWith("refresh") || path.startsWith("logout")) {
+            return Group.SIGN_IN;
+        }
+        if (path.startsWith("find-password") || path.startsWith("reset-password")) {
+            return Group.RECOVERY;
+        }
+        return Group.LOOKUP;
+    }
+
+    /**
+     * 클라이언트 IP를 구합니다.
+     * X-Forwarded-For는 클라이언트가 임의로 채울 수 있으므로 맨 앞이 아니라
+     * 신뢰하는 프록시가 추가한 위치(뒤에서 trustedProxyHops번째)의 값을 사용합니다.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (trustedProxyHops <= 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return request.getRemoteAddr();
+        }
+
+        String[] hops = forwardedFor.split(",");
+        int index = Math.max(0, hops.length - trustedProxyHops);
+        return hops[index].trim();
+    }
+}
@@ -3,6 +3,15 @@ package com.opensource.kemini_backend.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opensource.kemini_backend.dto.ApiResponse;
 import com.opensource.kemini_backend.dto.ErrorResponse;
+import com.opensource.kemini_backend.security.AccessTokenCache;
+import com.opensource.kemini_backend.security.AccessTokenCache.CachedPrincipal;
+import com.opensource.kemini_backend.security.AuthenticatedUser;
+import com.opensource.kemini_backend.security.CognitoAccessTokenVerifier;
+import com.opensource.kemini_backend.security.CognitoRemoteTokenValidator;
+import com.opensource.kemini_backend.security.JwtClaimExtractor;
+import com.opensource.kemini_backend.security.RevokedTokenDenylist;
+import com.opensource.kemini_backend.security.TokenValidationMode;
+import com.opensource.kemini_backend.security.UserIdResolver;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,24 +22,38 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.GetUserRequest;
-import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
-
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.Collections;
-import org.json.JSONObject;
+import java.util.List;
+import java.util.Set;
 
 public class CognitoHeaderAuthenticationFilter extends OncePerRequestFilter {
 
     public static final String AUTH_HEADER_KEY = "X-Authenticated-User-Email";
-    private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoRemoteTokenValidator remoteValidator;
+    private final CognitoAccessTokenVerifier tokenVerifier;
+    private final TokenValidationMode validationMode;
+    private final AccessTokenCache tokenCache;
+    private final RevokedTokenDenylist denylist;
+    private final UserIdResolver userIdResolver;
+    private final Set<String> adminEmails;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JwtClaimExtractor claimExtractor = new JwtClaimExtractor(objectMapper);
 
-    public CognitoHeaderAuthenticationFilter(CognitoIdentityProviderClient cognitoClient) {
-        this.cognitoClient = cognitoClient;
+    public CognitoHeaderAuthenticationFilter(
+        CognitoRemoteTokenValidator remoteValidator,
+        CognitoAccessTokenVerifier tokenVerifier,
+        TokenValidationMode validationMode,
+        AccessTokenCache tokenCache,
+        RevokedTokenDenylist denylist,
+        UserIdResolver userIdResolver,
+        Set<String> adminEmails) {
+        this.remoteValidator = remoteValidator;
+        this.tokenVerifier = tokenVerifier;
+        this.validationMode = validationMode;
+        this.tokenCache = tokenCache;
+        this.denylist = denylist;
+        this.userIdResolver = userIdResolver;
+        this.adminEmails = adminEmails;
     }
 
     @Override
@@ -46,53 +69,87 @@ public class CognitoHeaderAuthenticationFilter extends OncePerRequestFilter {
         if (fullTokenHeader != null && fullTokenHeader.startsWith("Bearer ")) {
             String token = fullTokenHeader.substring(7);
 
-            if (!isTokenValidOnline(token)) {
-                logger.warn("Online token validation failed (Signed out or expired). Returning 401.");
-                
-                sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "TOKEN_INVALID", "토큰이 유효하지 않거나 만료되었습니다. 다시 로그인해주세요.");
-                return; 
-            }
+            // 0. 로그아웃된 토큰은 서명이 유효해도 거부 (LOCAL 검증은 무효화 여부를 알 수 없음)
+            // 1. 이미 검증된 토큰이면 캐시에서 바로 사용자 정보 사용
+            boolean revoked = denylist.isRevoked(token);
+            CachedPrincipal principal = revoked ? null : tokenCache.get(token);
 
-            try {
-                String[] parts = token.split("\\.");
-                if (parts.length > 1) {
-                    byte[] decodedBytes = Base64.getUrlDecoder().decode(parts[1]);
-                    String payload = new String(decodedBytes, StandardCharsets.UTF_8);
-                    JSONObject jsonPayload = new JSONObject(payload);
-                    authenticatedEmail = jsonPayload.optString("username", null);
-                    System.out.println("DEBUG: Successfully parsed email from token: " + authenticatedEmail);
+            // 2. 캐시에 없으면 설정된 방식으로 검증 후 캐시에 저장
+            if (principal == null && !revoked) {
+                principal = switch (validationMode) {
+                    case LOCAL -> verifyLocally(token);
+                    case REMOTE -> switch (remoteValidator.validate(token)) {
+                        case VALID -> parsePrincipal(token);
+                        case INVALID -> null;
+                        // Cognito 장애/지연 시 로컬 서명·만료 검증으로 대체
+                        case UNAVAILABLE -> verifyLocally(token);
+                    };
+                    case LOCAL_AND_REMOTE -> {
+                        CachedPrincipal verified = verifyLocally(token);
+                        // 로컬 검증 통과 후, Cognito가 명시적으로 거부한 경우에만 차단
+                        yield (verified != null && remoteValidator.validate(token) != CognitoRemoteTokenValidator.Result.INVALID)
+                            ? verified : null;
+                    }
+                };
+                if (principal != null) {
+                    tokenCache.put(token, principal);
                 }
-            } catch (Exception e) {
-                logger.warn("JWT payload parsing error: " + e.getMessage());
+            }
+
+            // 3. GlobalSignOut/탈퇴 이전에 발급된 토큰 거부 (검증 중에 무효화된 경우 포함)
+            if (principal != null && denylist.isRevoked(principal.email(), principal.issuedAtMillis())) {
+                principal = null;
+            }
+
+            authenticatedEmail = principal != null ? principal.email() : null;
+
+            if (authenticatedEmail == null) {
+                logger.warn("Token validation failed (" + validationMode + "). Returning 401.");
+
+                sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "TOKEN_INVALID", "토큰이 유효하지 않거나 만료되었습니다. 다시 로그인해주세요.");
+                return;
             }
         } else {
             logger.warn("DEBUG: Header '" + AUTH_HEADER_KEY + "' is null or doesn't start with Bearer.");
         }
 
         if (authenticatedEmail != null) {
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            // 이메일과 함께 users.id를 한 번만 찾아 principal에 담아둠 (서비스 계층의 findByEmail 생략)
+            AuthenticatedUser principal = new AuthenticatedUser(
                     authenticatedEmail,
+                    userIdResolver.resolve(authenticatedEmail));
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    principal,
                     null,
-                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                    adminEmails.contains(authenticatedEmail)
+                        ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                        : List.of(new SimpleGrantedAuthority("ROLE_USER")));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
     
-    private boolean isTokenValidOnline(String accessToken) {
-        try {
-            GetUserRequest getUserRequest = GetUserRequest.builder().accessToken(accessToken).build();
-            cognitoClient.getUser(getUserRequest);
-            return true;
-        } catch (NotAuthorizedException e) {
-            return false;
-        } catch (Exception e) {
-            logger.error("Error during Cognito GetUser check: " + e.getMessage());
-            return false;
+    // JWKS 공개키로 서명/만료/발급자/client_id/token_use를 로컬 검증하고 username(이메일)과 만료 시각을 반환
+    private CachedPrincipal verifyLocally(String accessToken) {
+        return tokenVerifier.verify(accessToken)
+                .map(claims -> new CachedPrincipal(
+                    (String) claims.getClaim("username"),
+                    claims.getIssueTime() != null ? claims.getIssueTime().getTime() : 0L,
+                    claims.getExpirationTime().getTime()))
+                .orElse(null);
+    }
+
+    // (REMOTE 모드) 서명 검증 없이 payload에서 username, iat, exp만 추출
+    private CachedPrincipal parsePrincipal(String token) {
+        JwtClaimExtractor.Claims claims = claimExtractor.extract(token);
+        if (claims == null || claims.username() == null) {
+            logger.warn("JWT payload parsing error: username claim not found");
+            return null;
         }
+        return new CachedPrincipal(claims.username(), claims.issuedAtEpochSecond() * 1000L, claims.expiresAtEpochSecond() * 1000L);
     }
-    
+
     /**
      * 필터에서 JSON 형식의 오류 응답을 직접 생성하는 헬퍼 메서드
      * (ApiResponse를 반환하도록 수정)
@@ -0,0 +1,78 @@
+package com.opensource.kemini_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * 회원 탈퇴 후 사용자 데이터(S3 객체, 가상환경, users 행)를 정리하는 백그라운드 작업
+ *
+ * 사용자당 하나만 존재하며(user_id 고유), 각 단계는 다시 실행해도 같은 결과가 되도록 구성되어
+ * 실패/재시작 시 처음부터 다시 실행하면 됩니다.
+ * 최대 재시도 횟수를 넘기면 ABANDONED로 끝내고(더 이상 자동 실행하지 않음) 이메일을 풀어 다시 가입할 수 있게 합니다.
+ */
+@Entity
+@Table(
+    name = "account_purge_jobs",
+    indexes = @Index(name = "idx_purge_jobs_status", columnList = "status, next_attempt_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountPurgeJob {
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED, ABANDONED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, unique = true)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // 진행 상황
+    @Column(name = "objects_deleted", nullable = false)
+    private long objectsDeleted;
+
+    @Column(name = "environments_deleted", nullable = false)
+    private long environmentsDeleted;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // RUNNING 상태에서 오래 갱신되지 않으면 중단된 작업으로 보고 다시 실행
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public AccountPurgeJob(Long userId, String email) {
+        Instant now = Instant.now();
+        this.userId = userId;
+        this.email = email;
+        this.status = Status.PENDING;
+        this.createdAt = now;
+        this.updatedAt = now;
+        this.nextAttemptAt = now;
+    }
+}
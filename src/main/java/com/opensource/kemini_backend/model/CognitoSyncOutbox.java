@@ -0,0 +1,75 @@
+package com.opensource.kemini_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Cognito 사용자 속성 동기화 대기열 (transactional outbox)
+ *
+ * 사용자 정보 수정과 같은 트랜잭션에서 저장되고,
+ * CognitoSyncOutboxDispatcher가 커밋 이후 비동기로 Cognito에 반영한 뒤 삭제합니다.
+ * name / phoneNumber가 null이면 해당 속성은 변경하지 않음을 의미합니다.
+ * 재시도 횟수를 넘기거나 Cognito가 값을 거부하면 FAILED로 남겨 두고 더 이상 처리하지 않습니다. (dead letter)
+ */
+@Entity
+@Table(
+    name = "cognito_sync_outbox",
+    indexes = {
+        @Index(name = "idx_cognito_outbox_due", columnList = "status, next_attempt_at, id"),
+        @Index(name = "idx_cognito_outbox_email", columnList = "email, id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class CognitoSyncOutbox {
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Cognito username (이메일)
+    @Column(nullable = false)
+    private String email;
+
+    private String name;
+
+    @Column(name = "phone_number", length = 32)
+    private String phoneNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // 지금까지 실패한 횟수 (재시도 간격 계산용)
+    @Column(nullable = false)
+    private int attempts;
+
+    // 이 시각 이후에 처리 대상이 됨
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // 처리 중인 dispatcher의 선점 토큰과 만료 시각 (만료되면 다른 dispatcher가 다시 선점할 수 있음)
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    public CognitoSyncOutbox(String email, String name, String phoneNumber) {
+        this.email = email;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.status = Status.PENDING;
+        this.nextAttemptAt = Instant.now();
+    }
+}
@@ -16,7 +16,7 @@ public class EnvironmentFile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // 파일의 종류 (SPACE: 공간 데이터, MARKER: 마커/가구 데이터)
+    // 파일의 종류 (SPACE: 공간 데이터, MARKER: 마커/가구 데이터, MODEL: AI가 생성한 3D 모델)
     @Column(nullable = false)
     private String fileType; 
 
@@ -0,0 +1,97 @@
+package com.opensource.kemini_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * AI 3D 모델 생성 작업
+ *
+ * 업로드 이미지와 생성된 .glb는 로컬 작업 디렉터리(ai.jobs.storage-dir)에 파일로 두고,
+ * 이 테이블에는 상태와 경로만 기록합니다. (서버가 재시작되어도 완료된 결과를 다시 내려받을 수 있음)
+ */
+@Entity
+@Table(
+    name = "model_generation_jobs",
+    indexes = {
+        @Index(name = "idx_model_jobs_user", columnList = "user_id, created_at"),
+        @Index(name = "idx_model_jobs_status", columnList = "status, updated_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ModelGenerationJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    // 외부에 노출되는 작업 ID (UUID)
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "original_file_name")
+    private String originalFileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    // 업로드 이미지의 SHA-256 (모델 캐시 키)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    // 업로드 이미지 임시 파일 (처리가 끝나면 삭제)
+    @Column(name = "input_path", length = 1024)
+    private String inputPath;
+
+    // 생성된 .glb 파일
+    @Column(name = "result_path", length = 1024)
+    private String resultPath;
+
+    @Column(name = "result_size")
+    private Long resultSize;
+
+    // AI 서버 호출 시도 횟수 (일시적인 오류면 대기 후 다시 시도)
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public ModelGenerationJob(String id, Long userId, String originalFileName, String contentType,
+                              String imageHash, String inputPath) {
+        Instant now = Instant.now();
+        this.id = id;
+        this.userId = userId;
+        this.status = Status.QUEUED;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.imageHash = imageHash;
+        this.inputPath = inputPath;
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -9,7 +9,16 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
+@Table(
+    name = "users",
+    indexes = {
+        // 아이디 찾기(전화번호+질문+답변), 전화번호로 질문 조회
+        // email까지 포함해 아이디 찾기는 테이블을 읽지 않고 인덱스만으로 처리
+        @Index(name = "idx_users_phone_answer", columnList = "phone_number, ask_id, ask_answer_hash, email"),
+        // 비밀번호 찾기/재설정(이메일+질문+답변) 검증
+        @Index(name = "idx_users_email_answer", columnList = "email, ask_id, ask_answer_hash")
+    }
+)
 public class User {
 
     // ID: Long 타입, 자동 증가 PK로 설정
@@ -24,16 +33,22 @@ public class User {
     // 이름
     private String name;
 
-    // 전화번호
+    // 전화번호 (+8210... 형식으로 정규화되어 저장)
+    @Column(name = "phone_number", length = 32)
     private String phoneNumber;
 
     // 보안 질문 ID
     @Column(name = "ask_id")
     private Long askId;
 
-    // 보안 질문 답변
+    // (이전 방식) 평문 보안 질문 답변
+    // 시작 시 SecurityAnswerBackfill이 해시로 옮긴 뒤 비우며, 새로 저장하지 않음
     @Column(name = "ask_answer")
     private String askAnswer;
+
+    // 정규화된 보안 질문 답변의 HMAC-SHA256 (SecurityAnswerHasher)
+    @Column(name = "ask_answer_hash", length = 64)
+    private String askAnswerHash;
     
     // Cognito 상태 추적용: UNCONFIRMED, CONFIRMED
     private String status; 
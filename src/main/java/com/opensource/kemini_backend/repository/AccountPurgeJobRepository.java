@@ -0,0 +1,44 @@
+package com.opensource.kemini_backend.repository;
+
+import com.opensource.kemini_backend.model.AccountPurgeJob;
+import com.opensource.kemini_backend.model.AccountPurgeJob.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountPurgeJobRepository extends JpaRepository<AccountPurgeJob, Long> {
+
+    Optional<AccountPurgeJob> findByUserId(Long userId);
+
+    // 실행할 작업: 대기/재시도 시각이 된 작업, 또는 오래 갱신되지 않은(중단된) 실행 중 작업
+    @Query("select j.id from AccountPurgeJob j "
+         + "where (j.status in :retryable and j.nextAttemptAt <= :now) "
+         + "   or (j.status = :running and j.updatedAt < :staleBefore) "
+         + "order by j.id")
+    List<Long> findRunnableIds(@Param("retryable") Collection<Status> retryable,
+                               @Param("running") Status running,
+                               @Param("now") Instant now,
+                               @Param("staleBefore") Instant staleBefore,
+                               Pageable pageable);
+
+    // 작업 선점 (여러 인스턴스/스레드가 같은 작업을 동시에 실행하지 않도록 조건부 update)
+    @Transactional
+    @Modifying
+    @Query("update AccountPurgeJob j set j.status = :running, j.updatedAt = :now "
+         + "where j.id = :id and (j.status in :retryable or (j.status = :running and j.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("retryable") Collection<Status> retryable,
+              @Param("running") Status running,
+              @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore);
+
+    long countByStatus(Status status);
+}
@@ -0,0 +1,75 @@
+package com.opensource.kemini_backend.repository;
+
+import com.opensource.kemini_backend.model.CognitoSyncOutbox;
+import com.opensource.kemini_backend.model.CognitoSyncOutbox.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CognitoSyncOutboxRepository extends JpaRepository<CognitoSyncOutbox, Long> {
+
+    // 처리할 때가 되었고 다른 dispatcher가 선점하지 않은 사용자 이메일 (오래된 순)
+    @Query("select o.email from CognitoSyncOutbox o "
+         + "where o.status = :pending and o.nextAttemptAt <= :now and (o.leaseUntil is null or o.leaseUntil < :now) "
+         + "group by o.email order by min(o.id)")
+    List<String> findDueEmails(@Param("pending") Status pending, @Param("now") Instant now, Pageable pageable);
+
+    // 해당 사용자들의 대기 중인 변경을 모두 선점 (재시도 대기 중인 이전 변경도 함께 합쳐야 하므로 시각 조건 없음)
+    @Transactional
+    @Modifying
+    @Query("update CognitoSyncOutbox o set o.claimToken = :token, o.leaseUntil = :leaseUntil "
+         + "where o.email in :emails and o.status = :pending and (o.leaseUntil is null or o.leaseUntil < :now)")
+    int claim(@Param("emails") Collection<String> emails,
+              @Param("pending") Status pending,
+              @Param("token") String token,
+              @Param("now") Instant now,
+              @Param("leaseUntil") Instant leaseUntil);
+
+    // 선점한 변경 (오래된 순, 사용자별로 하나로 합치기 위함)
+    List<CognitoSyncOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    // 같은 사용자의 더 이전 변경을 다른 dispatcher가 처리 중인지 확인
+    @Query("select count(o) from CognitoSyncOutbox o "
+         + "where o.email = :email and o.id < :id and o.status = :pending and o.leaseUntil >= :now and o.claimToken <> :token")
+    long countClaimedByOthersBefore(@Param("email") String email,
+                                    @Param("id") Long id,
+                                    @Param("pending") Status pending,
+                                    @Param("token") String token,
+                                    @Param("now") Instant now);
+
+    // 실패한 변경의 선점을 풀고 재시도 시각 연기
+    @Transactional
+    @Modifying
+    @Query("update CognitoSyncOutbox o set o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error, "
+         + "o.claimToken = null, o.leaseUntil = null "
+         + "where o.id in :ids")
+    int markRetry(@Param("ids") Collection<Long> ids,
+                  @Param("nextAttemptAt") Instant nextAttemptAt,
+                  @Param("error") String error);
+
+    // 처리하지 않은 변경의 선점을 풀고 다음 처리 시각 지정 (실패 횟수는 그대로)
+    @Transactional
+    @Modifying
+    @Query("update CognitoSyncOutbox o set o.nextAttemptAt = :nextAttemptAt, o.claimToken = null, o.leaseUntil = null "
+         + "where o.id in :ids")
+    int release(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    // 더 이상 재시도하지 않음 (dead letter)
+    @Transactional
+    @Modifying
+    @Query("update CognitoSyncOutbox o set o.status = :failedStatus, o.attempts = o.attempts + 1, o.lastError = :error, "
+         + "o.claimToken = null, o.leaseUntil = null "
+         + "where o.id in :ids")
+    int markFailed(@Param("ids") Collection<Long> ids,
+                   @Param("failedStatus") Status failedStatus,
+                   @Param("error") String error);
+
+    long countByStatus(Status status);
+}
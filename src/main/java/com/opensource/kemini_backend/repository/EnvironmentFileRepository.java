@@ -0,0 +1,7 @@
+package com.opensource.kemini_backend.repository;
+
+import com.opensource.kemini_backend.model.EnvironmentFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EnvironmentFileRepository extends JpaRepository<EnvironmentFile, Long> {
+}
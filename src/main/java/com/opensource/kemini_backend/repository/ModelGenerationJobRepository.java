@@ -0,0 +1,18 @@
+package com.opensource.kemini_backend.repository;
+
+import com.opensource.kemini_backend.model.ModelGenerationJob;
+import com.opensource.kemini_backend.model.ModelGenerationJob.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ModelGenerationJobRepository extends JpaRepository<ModelGenerationJob, String> {
+
+    // 재시작 시 다시 실행할 작업 (QUEUED / RUNNING)
+    List<ModelGenerationJob> findByStatusInOrderByCreatedAtAsc(Collection<Status> statuses);
+
+    // 보관 기간이 지난 완료 작업
+    List<ModelGenerationJob> findByStatusInAndUpdatedAtBefore(Collection<Status> statuses, Instant before);
+}
@@ -3,6 +3,8 @@ package com.opensource.kemini_backend.repository;
 import org.springframework.transaction.annotation.Transactional;
 import com.opensource.kemini_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,21 +15,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // 이메일로 사용자 찾기
     Optional<User> findByEmail(String email);
 
-    // 전화번호로 사용자 조회
-    Optional<User> findByPhoneNumber(String phoneNumber);
+    // 이메일 존재 여부만 확인 (아이디 중복 확인용)
+    boolean existsByEmail(String email);
 
-    // 아이디 찾기를 위한 3개 필드 조회
-    Optional<User> findByPhoneNumberAndAskIdAndAskAnswer(
-        String phoneNumber, 
-        Long askId, 
-        String askAnswer
+    // 이메일로 사용자 ID만 조회 (인증 단계의 ID 캐시에서 사용)
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // 전화번호로 보안 질문 ID 조회 (idx_users_phone_answer)
+    @Query("select u.askId from User u where u.phoneNumber = :phoneNumber")
+    Optional<Long> findAskIdByPhoneNumber(@Param("phoneNumber") String phoneNumber);
+
+    // 이메일로 보안 질문 ID 조회 (비밀번호 찾기 1단계)
+    @Query("select u.askId from User u where u.email = :email")
+    Optional<Long> findAskIdByEmail(@Param("email") String email);
+
+    // 아이디 찾기: 전화번호 + 질문ID + 답변 해시로 이메일만 조회
+    // (idx_users_phone_answer에 email이 포함되어 있어 인덱스만으로 처리)
+    @Query("select u.email from User u "
+         + "where u.phoneNumber = :phoneNumber and u.askId = :askId and u.askAnswerHash = :askAnswerHash")
+    Optional<String> findEmailBySecurityAnswer(
+        @Param("phoneNumber") String phoneNumber,
+        @Param("askId") Long askId,
+        @Param("askAnswerHash") String askAnswerHash
     );
 
-    // 이메일 + 질문ID + 답변으로 사용자 조회
+    // 이메일 + 질문ID + 답변 해시 일치 여부 (idx_users_email_answer)
     // (비밀번호 찾기 2단계 및 3단계에서 사용)
-    Optional<User> findByEmailAndAskIdAndAskAnswer(
-        String email, 
-        Long askId, 
-        String askAnswer
+    boolean existsByEmailAndAskIdAndAskAnswerHash(
+        String email,
+        Long askId,
+        String askAnswerHash
     );
 }
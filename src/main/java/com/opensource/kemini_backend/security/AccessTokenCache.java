@@ -0,0 +1,122 @@
+package com.opensource.kemini_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증이 끝난 Access Token을 보관하는 크기/TTL 제한 캐시
+ *
+ * - 키: 토큰 원문이 아닌 SHA-256 해시
+ * - 값: 토큰에서 꺼낸 사용자 정보 (토큰의 exp를 절대 넘기지 않음)
+ * - 로그아웃/회원 탈퇴 시 즉시 제거하여 토큰 무효화가 바로 반영되도록 함
+ * - 지표: cache.gets{cache=auth.token,result=hit|miss}, cache.evictions, auth.token.cache.revocations
+ */
+@Component
+public class AccessTokenCache {
+
+    // 캐시에 저장되는 값 (이메일 + 토큰 발급/만료 시각)
+    public record CachedPrincipal(String email, long issuedAtMillis, long expiresAtMillis) {}
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final long maxTtlMillis;
+    private final Counter revocationCounter;
+
+    public AccessTokenCache(
+        MeterRegistry meterRegistry,
+        @Value("${auth.token-cache.max-size:10000}") long maxSize,
+        @Value("${auth.token-cache.max-ttl-ms:300000}") long maxTtlMillis) {
+        this.maxTtlMillis = maxTtlMillis;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+        this.revocationCounter = meterRegistry.counter("auth.token.cache.revocations");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.token");
+    }
+
+    /**
+     * 캐시된 사용자 정보를 조회합니다. (없거나 만료되었으면 null)
+     */
+    public CachedPrincipal get(String accessToken) {
+        CachedPrincipal principal = cache.getIfPresent(hash(accessToken));
+        if (principal != null && principal.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * 검증된 토큰을 저장합니다. 이미 만료된 토큰은 저장하지 않습니다.
+     */
+    public void put(String accessToken, CachedPrincipal principal) {
+        if (principal.email() == null || principal.expiresAtMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(hash(accessToken), principal);
+    }
+
+    // 로그아웃 시: 해당 토큰만 제거
+    public void evictToken(String accessToken) {
+        if (cache.asMap().remove(hash(accessToken)) != null) {
+            revocationCounter.increment();
+        }
+    }
+
+    // 회원 탈퇴 시: 해당 사용자의 모든 토큰 제거
+    public void evictUser(String email) {
+        cache.asMap().values().removeIf(principal -> {
+            boolean matched = principal.email().equals(email);
+            if (matched) {
+                revocationCounter.increment();
+            }
+            return matched;
+        });
+    }
+
+    // 토큰 원문 대신 쓰는 키 (RevokedTokenDenylist와 공유)
+    static String hash(String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(accessToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    // 항목별 만료 시간: min(토큰 남은 수명, 최대 TTL)
+    private class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, Math.min(remainingMillis, maxTtlMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
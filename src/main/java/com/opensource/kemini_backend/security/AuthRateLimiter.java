@@ -0,0 +1,107 @@
+package com.opensource.kemini_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opensource.kemini_backend.utility.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 인증 없이 호출되는 /api/v1/auth/** 엔드포인트용 클라이언트별 요청 제한
+ *
+ * - 키: 엔드포인트 그룹 + 클라이언트 IP, 키마다 토큰 버킷 하나
+ * - 버킷 맵은 최대 개수(auth.rate-limit.max-clients)와 유휴 만료(auth.rate-limit.idle-eviction-ms)로 제한
+ *   → IP를 바꿔가며 요청해도 메모리는 일정하게 유지됨
+ * - 그룹별 예산: auth.rate-limit.{group}.capacity, auth.rate-limit.{group}.refill-per-second
+ *   (group = sign-up, sign-in, lookup, recovery)
+ *
+ * 지표: auth.rate-limit.rejections{group}, auth.rate-limit.buckets
+ */
+@Component
+public class AuthRateLimiter {
+
+    public enum Group {
+        // 회원가입: Cognito signUp + DB 저장
+        SIGN_UP(5, 0.1),
+        // 로그인/토큰 갱신/로그아웃: Cognito 인증 호출
+        SIGN_IN(20, 1.0),
+        // 아이디 중복 확인, 아이디 찾기, 질문 조회: DB 조회
+        LOOKUP(30, 2.0),
+        // 비밀번호 찾기/재설정: 보안 질문 대입 방지를 위해 가장 엄격하게
+        RECOVERY(5, 0.05);
+
+        private final long defaultCapacity;
+        private final double defaultRefillPerSecond;
+
+        Group(long defaultCapacity, double defaultRefillPerSecond) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPerSecond = defaultRefillPerSecond;
+        }
+
+        // 설정 키에 쓰는 이름 (SIGN_UP → sign-up)
+        public String propertyName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private record Budget(long capacity, double refillPerSecond) {}
+
+    private final Map<Group, Budget> budgets = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> rejectionCounters = new EnumMap<>(Group.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    public AuthRateLimiter(
+        Environment environment,
+        MeterRegistry meterRegistry,
+        @Value("${auth.rate-limit.max-clients:100000}") long maxClients,
+        @Value("${auth.rate-limit.idle-eviction-ms:600000}") long idleEvictionMillis) {
+
+        for (Group group : Group.values()) {
+            String prefix = "auth.rate-limit." + group.propertyName();
+            budgets.put(group, new Budget(
+                environment.getProperty(prefix + ".capacity", Long.class, group.defaultCapacity),
+                environment.getProperty(prefix + ".refill-per-second", Double.class, group.defaultRefillPerSecond)));
+            rejectionCounters.put(group,
+                meterRegistry.counter("auth.rate-limit.rejections", "group", group.propertyName()));
+        }
+
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofMillis(idleEvictionMillis))
+            .build();
+
+        Gauge.builder("auth.rate-limit.buckets", buckets, Cache::estimatedSize)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 요청 하나를 허용할지 판단합니다.
+     *
+     * @return 0이면 허용, 양수면 다시 시도할 수 있을 때까지의 시간(초, Retry-After 값)
+     */
+    public long tryAcquire(Group group, String clientKey) {
+        TokenBucket bucket = buckets.get(group.ordinal() + "|" + clientKey, key -> {
+            Budget budget = budgets.get(group);
+            return new TokenBucket(budget.capacity(), budget.refillPerSecond());
+        });
+
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos == 0L) {
+            return 0L;
+        }
+        rejectionCounters.get(group).increment();
+        // 올림 처리 (최소 1초)
+        return Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,18 @@
+package com.opensource.kemini_backend.security;
+
+import java.security.Principal;
+
+/**
+ * 인증 필터가 SecurityContext에 넣는 사용자 정보
+ * (컨트롤러에서 @AuthenticationPrincipal AuthenticatedUser 로 주입받아 사용)
+ *
+ * @param email  Cognito username (= 이메일)
+ * @param userId users 테이블의 PK (DB에 사용자 레코드가 없으면 null)
+ */
+public record AuthenticatedUser(String email, Long userId) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,60 @@
+package com.opensource.kemini_backend.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cognito Access Token을 네트워크 호출 없이 로컬에서 검증합니다.
+ *
+ * 검증 항목: RS256 서명(JWKS), exp, iss, client_id, token_use=access
+ */
+@Component
+public class CognitoAccessTokenVerifier {
+
+    private final ConfigurableJWTProcessor<SecurityContext> jwtProcessor;
+
+    public CognitoAccessTokenVerifier(
+        CognitoJwksProvider jwksProvider,
+        @Value("${auth.jwt.issuer:https://cognito-idp.${aws.cognito.region}.amazonaws.com/${aws.cognito.userPoolId}}") String issuer,
+        @Value("${aws.cognito.clientId}") String clientId) {
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwksProvider));
+
+        // 반드시 일치해야 하는 클레임 + 반드시 존재해야 하는 클레임 (exp는 기본으로 만료 검사)
+        JWTClaimsSet exactMatchClaims = new JWTClaimsSet.Builder()
+            .issuer(issuer)
+            .claim("client_id", clientId)
+            .claim("token_use", "access")
+            .build();
+        processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+            exactMatchClaims,
+            Set.of("exp", "username")
+        ));
+
+        this.jwtProcessor = processor;
+    }
+
+    /**
+     * 서명과 클레임을 검증하고, 유효하면 클레임 목록을 반환합니다.
+     * @return 검증 실패(서명 불일치, 만료, 발급자/클라이언트 불일치 등) 시 Optional.empty()
+     */
+    public Optional<JWTClaimsSet> verify(String accessToken) {
+        try {
+            return Optional.of(jwtProcessor.process(accessToken, null));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+}
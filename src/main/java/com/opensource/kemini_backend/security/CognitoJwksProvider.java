@@ -0,0 +1,75 @@
+package com.opensource.kemini_backend.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Cognito User Pool의 JWKS(공개키 목록)를 메모리에 보관하는 키 소스
+ *
+ * - 기본 위치: https://cognito-idp.{region}.amazonaws.com/{userPoolId}/.well-known/jwks.json
+ * - 테스트/로컬 환경에서는 auth.jwt.jwks-location 에 file: 또는 classpath: 경로를 지정할 수 있습니다.
+ * - 주기적으로 갱신하며, 모르는 kid가 들어오면 최소 간격을 지켜 즉시 재조회합니다. (키 로테이션 대응)
+ */
+@Component
+public class CognitoJwksProvider implements JWKSource<SecurityContext> {
+
+    private final ResourceLoader resourceLoader;
+    private final String jwksLocation;
+    private final long minRefreshIntervalMillis;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile long lastRefreshAttemptAt = 0L;
+
+    public CognitoJwksProvider(
+        ResourceLoader resourceLoader,
+        @Value("${auth.jwt.jwks-location:https://cognito-idp.${aws.cognito.region}.amazonaws.com/${aws.cognito.userPoolId}/.well-known/jwks.json}") String jwksLocation,
+        @Value("${auth.jwt.jwks-min-refresh-interval-ms:60000}") long minRefreshIntervalMillis) {
+        this.resourceLoader = resourceLoader;
+        this.jwksLocation = jwksLocation;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        List<JWK> matches = jwkSelector.select(jwkSet);
+
+        // 일치하는 키가 없으면 (키 로테이션 직후 등) 한 번 재조회
+        if (matches.isEmpty() && System.currentTimeMillis() - lastRefreshAttemptAt >= minRefreshIntervalMillis) {
+            refresh();
+            matches = jwkSelector.select(jwkSet);
+        }
+        return matches;
+    }
+
+    /**
+     * JWKS를 다시 읽어 메모리의 키 목록을 교체합니다.
+     * (실패 시 기존 키 목록을 그대로 유지)
+     */
+    @Scheduled(fixedDelayString = "${auth.jwt.jwks-refresh-interval-ms:3600000}")
+    public synchronized void refresh() {
+        lastRefreshAttemptAt = System.currentTimeMillis();
+
+        Resource resource = resourceLoader.getResource(jwksLocation);
+        try (InputStream in = resource.getInputStream()) {
+            JWKSet loaded = JWKSet.load(in);
+            if (!loaded.getKeys().isEmpty()) {
+                jwkSet = loaded;
+            }
+        } catch (Exception e) {
+            System.err.println("JWKS 갱신 실패 (" + jwksLocation + "): " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.opensource.kemini_backend.security;
+
+import com.opensource.kemini_backend.utility.CircuitBreaker;
+import com.opensource.kemini_backend.utility.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.GetUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+
+import java.time.Duration;
+
+/**
+ * Cognito GetUser를 이용한 원격 토큰 검증
+ *
+ * - 같은 토큰의 동시 호출은 하나로 합침 (SingleFlight)
+ * - 호출마다 짧은 시간 제한(latency budget)을 두고, 연속 실패 시 서킷 브레이커가 열림
+ * - 브레이커가 열려 있거나 시간 초과/오류가 나면 UNAVAILABLE을 반환 → 필터가 로컬 검증으로 대체
+ *
+ * 지표: auth.cognito.breaker.state, auth.cognito.breaker.transitions, auth.cognito.fallbacks
+ */
+@Component
+public class CognitoRemoteTokenValidator {
+
+    public enum Result {
+        VALID,       // Cognito가 토큰을 확인함
+        INVALID,     // 로그아웃/만료/위조된 토큰 (NotAuthorizedException)
+        UNAVAILABLE  // Cognito 지연/장애 또는 브레이커 OPEN → 로컬 검증으로 대체해야 함
+    }
+
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final Duration latencyBudget;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter fallbackCounter;
+
+    // 같은 토큰으로 동시에 들어온 GetUser 호출을 하나로 합침 (Unity 클라이언트 시작 시 병렬 요청 대응)
+    private final SingleFlight<String, Result> inFlight = new SingleFlight<>();
+
+    public CognitoRemoteTokenValidator(
+        CognitoIdentityProviderClient cognitoClient,
+        MeterRegistry meterRegistry,
+        @Value("${auth.cognito.latency-budget-ms:500}") long latencyBudgetMillis,
+        @Value("${auth.cognito.breaker.failure-threshold:5}") int failureThreshold,
+        @Value("${auth.cognito.breaker.open-duration-ms:30000}") long openDurationMillis,
+        @Value("${auth.cognito.breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.cognitoClient = cognitoClient;
+        this.latencyBudget = Duration.ofMillis(latencyBudgetMillis);
+        this.circuitBreaker = new CircuitBreaker(
+            "auth.cognito.breaker", failureThreshold, openDurationMillis, halfOpenCalls, meterRegistry);
+        this.fallbackCounter = meterRegistry.counter("auth.cognito.fallbacks");
+    }
+
+    public Result validate(String accessToken) {
+        Result result = inFlight.execute(accessToken, () -> callGetUser(accessToken));
+        if (result == Result.UNAVAILABLE) {
+            fallbackCounter.increment();
+        }
+        return result;
+    }
+
+    private Result callGetUser(String accessToken) {
+        if (!circuitBreaker.tryAcquire()) {
+            return Result.UNAVAILABLE;
+        }
+
+        try {
+            GetUserRequest getUserRequest = GetUserRequest.builder()
+                .accessToken(accessToken)
+                .overrideConfiguration(o -> o.apiCallTimeout(latencyBudget))
+                .build();
+            cognitoClient.getUser(getUserRequest);
+            circuitBreaker.onSuccess();
+            return Result.VALID;
+        } catch (NotAuthorizedException e) {
+            // Cognito는 정상 응답함 (토큰만 무효)
+            circuitBreaker.onSuccess();
+            return Result.INVALID;
+        } catch (Exception e) {
+            System.err.println("Cognito GetUser 검증 실패 (로컬 검증으로 대체): " + e.getMessage());
+            circuitBreaker.onFailure();
+            return Result.UNAVAILABLE;
+        }
+    }
+}
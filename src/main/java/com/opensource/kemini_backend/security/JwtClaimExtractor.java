@@ -0,0 +1,99 @@
+package com.opensource.kemini_backend.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Base64;
+
+/**
+ * JWT payload에서 필요한 클레임(username, exp, iat)만 꺼내는 추출기
+ *
+ * - 정규식(String.split) 없이 '.' 위치만 찾아 payload 구간만 Base64URL 디코딩
+ * - JSON 트리(JSONObject/JsonNode)를 만들지 않고 Jackson 스트리밍 파서로 필요한 필드만 읽음
+ * - 서명 검증은 하지 않으므로, 반드시 다른 검증(로컬 서명 검증 또는 Cognito GetUser)과 함께 사용해야 함
+ */
+public class JwtClaimExtractor {
+
+    // username이 없으면 null, exp/iat이 없으면 0
+    public record Claims(String username, long expiresAtEpochSecond, long issuedAtEpochSecond) {}
+
+    private final JsonFactory jsonFactory;
+
+    public JwtClaimExtractor(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * @return 형식이 잘못된 토큰이면 null
+     */
+    public Claims extract(String token) {
+        if (token == null) {
+            return null;
+        }
+        int headerEnd = token.indexOf('.');
+        if (headerEnd < 0) {
+            return null;
+        }
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0) {
+            payloadEnd = token.length();
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(asciiBytes(token, headerEnd + 1, payloadEnd));
+            return parseClaims(payload);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Claims parseClaims(byte[] payload) throws Exception {
+        String username = null;
+        long exp = 0L;
+        long iat = 0L;
+        boolean usernameFound = false;
+        boolean expFound = false;
+        boolean iatFound = false;
+
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("username".equals(field) && value == JsonToken.VALUE_STRING) {
+                    username = parser.getText();
+                    usernameFound = true;
+                } else if ("exp".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    exp = parser.getLongValue();
+                    expFound = true;
+                } else if ("iat".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    iat = parser.getLongValue();
+                    iatFound = true;
+                } else {
+                    // 필요 없는 값(배열/객체 포함)은 건너뜀
+                    parser.skipChildren();
+                }
+
+                // 필요한 클레임을 모두 찾으면 나머지는 읽지 않음
+                if (usernameFound && expFound && iatFound) {
+                    break;
+                }
+            }
+        }
+        return new Claims(username, exp, iat);
+    }
+
+    // Base64URL 문자는 모두 ASCII이므로 문자 → 바이트를 그대로 복사
+    private static byte[] asciiBytes(String s, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.opensource.kemini_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그아웃/회원 탈퇴로 무효화된 Access Token 목록
+ *
+ * LOCAL 검증은 서명/만료만 확인하므로, 캐시에서 제거하는 것만으로는 무효화된 토큰이 다시 통과합니다.
+ * - 토큰 단위: 로그아웃한 토큰의 SHA-256 해시를 토큰의 exp까지 보관
+ * - 사용자 단위: GlobalSignOut/탈퇴 시각을 기록하고, 그 이전 초까지 발급(iat)된 토큰은 모두 거부
+ *   (Access Token 최대 수명인 auth.token-denylist.user-retention-ms 동안 보관)
+ *
+ * 서버 메모리에만 보관하므로 여러 대로 운영하면 각 서버에서 따로 기록됩니다.
+ * 지표: auth.token.denylist.size{kind}, auth.token.denylist.rejections
+ */
+@Component
+public class RevokedTokenDenylist {
+
+    private final Cache<String, Long> revokedTokens;
+    private final Cache<String, Long> revokedUsers;
+    private final long userRetentionMillis;
+    private final Counter rejectionCounter;
+
+    public RevokedTokenDenylist(
+        MeterRegistry meterRegistry,
+        @Value("${auth.token-denylist.max-size:100000}") long maxSize,
+        @Value("${auth.token-denylist.user-retention-ms:86400000}") long userRetentionMillis) {
+        this.userRetentionMillis = userRetentionMillis;
+        this.revokedTokens = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new UntilTokenExpiry())
+            .build();
+        this.revokedUsers = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(userRetentionMillis))
+            .build();
+        this.rejectionCounter = meterRegistry.counter("auth.token.denylist.rejections");
+
+        Gauge.builder("auth.token.denylist.size", revokedTokens, Cache::estimatedSize)
+            .tag("kind", "token")
+            .register(meterRegistry);
+        Gauge.builder("auth.token.denylist.size", revokedUsers, Cache::estimatedSize)
+            .tag("kind", "user")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 토큰 하나를 만료 시각까지 거부합니다. (만료 시각을 모르면 사용자 단위 보관 기간만큼)
+     */
+    public void revokeToken(String accessToken, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        long until = expiresAtMillis > now ? expiresAtMillis : now + userRetentionMillis;
+        revokedTokens.put(AccessTokenCache.hash(accessToken), until);
+    }
+
+    /**
+     * 지금까지 발급된 사용자의 모든 토큰을 거부합니다. (이후 다시 로그인해 받은 토큰은 통과)
+     */
+    public void revokeUser(String email) {
+        revokedUsers.put(email, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String accessToken) {
+        boolean revoked = revokedTokens.getIfPresent(AccessTokenCache.hash(accessToken)) != null;
+        if (revoked) {
+            rejectionCounter.increment();
+        }
+        return revoked;
+    }
+
+    public boolean isRevoked(String email, long issuedAtMillis) {
+        Long revokedAtMillis = revokedUsers.getIfPresent(email);
+        // iat은 초 단위라 무효화와 같은 초에 발급된 토큰은 전후를 알 수 없음
+        // → 무효화 직후 다시 로그인해 받은 토큰이 거부되지 않도록 통과 (로그아웃한 토큰 자체는 토큰 단위로 거부됨)
+        boolean revoked = revokedAtMillis != null && issuedAtMillis / 1000 < revokedAtMillis / 1000;
+        if (revoked) {
+            rejectionCounter.increment();
+        }
+        return revoked;
+    }
+
+    // 항목별 만료 시간: 토큰의 exp까지
+    private static class UntilTokenExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long untilMillis, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, untilMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long untilMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, untilMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long untilMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
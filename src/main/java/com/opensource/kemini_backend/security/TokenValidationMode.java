@@ -0,0 +1,17 @@
+package com.opensource.kemini_backend.security;
+
+/**
+ * Access Token 검증 방식
+ * (auth.token.validation-mode 설정값)
+ */
+public enum TokenValidationMode {
+
+    // JWKS 공개키로 서명/만료/발급자만 로컬 검증 (기본값, 네트워크 호출 없음)
+    LOCAL,
+
+    // 매 요청마다 Cognito GetUser 호출 (로그아웃된 토큰까지 즉시 차단)
+    REMOTE,
+
+    // 로컬 검증 통과 후 Cognito GetUser까지 확인
+    LOCAL_AND_REMOTE
+}
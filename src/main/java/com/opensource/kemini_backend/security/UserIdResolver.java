@@ -0,0 +1,64 @@
+package com.opensource.kemini_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opensource.kemini_backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이메일 → users.id 매핑 캐시
+ *
+ * 인증 단계에서 한 번만 사용자 ID를 찾아두어, 서비스 계층이 매번 findByEmail을 하지 않도록 합니다.
+ * 회원 탈퇴 시 UserService.deleteUser에서 즉시 제거합니다.
+ * (DB에 없는 사용자는 캐시하지 않음 → 가입 직후 바로 조회됨)
+ */
+@Component
+public class UserIdResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> cache;
+
+    public UserIdResolver(
+        UserRepository userRepository,
+        MeterRegistry meterRegistry,
+        @Value("${auth.user-id-cache.max-size:10000}") long maxSize,
+        @Value("${auth.user-id-cache.ttl-ms:3600000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user-id");
+    }
+
+    /**
+     * @return 사용자 ID (DB에 없으면 null)
+     */
+    public Long resolve(String email) {
+        if (email == null) {
+            return null;
+        }
+        Long cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        Long userId = userRepository.findIdByEmail(email).orElse(null);
+        if (userId != null) {
+            cache.put(email, userId);
+        }
+        return userId;
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+}
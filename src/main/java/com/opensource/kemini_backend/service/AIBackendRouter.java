@@ -0,0 +1,241 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 서버(백엔드) 여러 대에 생성 요청을 나누어 보내는 라우터
+ *
+ * - 진행 중인 요청 수가 가장 적은 백엔드 선택, 최근 응답 시간(지수 이동 평균)으로 가중치
+ *   (점수 = (진행 중 요청 수 + 1) × 평균 응답 시간, 가장 낮은 점수 선택)
+ *   응답 시간을 아직 모르는 백엔드는 응답 시간을 아는 백엔드들의 평균으로 계산
+ * - 연속 실패가 ai.backends.failure-threshold에 도달하면 제외(eject)
+ * - 제외된 백엔드는 주기적으로 헬스 체크(GET {url}{ai.backends.health-path})하여 성공하면 복귀
+ * - 모든 백엔드가 제외된 경우에는 제외된 백엔드라도 그대로 시도 (요청이 성공하면 바로 복귀)
+ *
+ * 지표: ai.backends.outstanding{backend}, ai.backends.healthy{backend}, ai.backends.ejections{backend}
+ */
+@Component
+public class AIBackendRouter {
+
+    // 최근 응답 시간 평균에 새 값을 반영하는 비율
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final CloseableHttpClient httpClient;
+    private final List<Backend> backends;
+    private final int failureThreshold;
+    private final String healthPath;
+    private final RequestConfig probeConfig;
+
+    public AIBackendRouter(
+        CloseableHttpClient outboundHttpClient,
+        MeterRegistry meterRegistry,
+        @Value("${ai.server.urls:${ai.server.url}}") String[] urls,
+        @Value("${ai.backends.failure-threshold:3}") int failureThreshold,
+        @Value("${ai.backends.health-path:/health}") String healthPath,
+        @Value("${ai.backends.probe-timeout-ms:2000}") long probeTimeoutMillis) {
+        this.httpClient = outboundHttpClient;
+        this.failureThreshold = failureThreshold;
+        this.healthPath = healthPath;
+        this.probeConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(probeTimeoutMillis))
+            .setResponseTimeout(Timeout.ofMilliseconds(probeTimeoutMillis))
+            .build();
+
+        List<Backend> list = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            Backend backend = new Backend(url.strip(), meterRegistry);
+            list.add(backend);
+            Gauge.builder("ai.backends.outstanding", backend.outstanding, AtomicInteger::get)
+                .tag("backend", backend.url).register(meterRegistry);
+            Gauge.builder("ai.backends.healthy", backend, b -> b.ejected ? 0 : 1)
+                .tag("backend", backend.url).register(meterRegistry);
+        }
+        if (list.isEmpty()) {
+            throw new IllegalStateException("AI 서버 주소(ai.server.urls)가 설정되지 않았습니다.");
+        }
+        this.backends = List.copyOf(list);
+    }
+
+    /**
+     * 요청을 보낼 백엔드를 고르고 진행 중 요청 수를 올립니다.
+     * 받은 Lease는 응답을 받으면 succeeded, 실패하면 failed를 반드시 호출해야 합니다.
+     *
+     * @param excluded 이번 요청에서 이미 실패한 백엔드 (없으면 null)
+     */
+    public Lease acquire(Backend excluded) {
+        Backend best = select(excluded, false);
+        if (best == null) {
+            best = select(excluded, true);
+        }
+        if (best == null) {
+            throw new UpstreamUnavailableException("사용 가능한 AI 서버가 없습니다. 잠시 후 다시 시도해주세요.");
+        }
+        best.outstanding.incrementAndGet();
+        return new Lease(best, System.nanoTime());
+    }
+
+    private Backend select(Backend excluded, boolean includeEjected) {
+        double unknownLatency = meanKnownLatencyMillis();
+        Backend best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Backend backend : backends) {
+            if (backend == excluded || (backend.ejected && !includeEjected)) {
+                continue;
+            }
+            double score = (backend.outstanding.get() + 1) * backend.latencyMillis(unknownLatency);
+            if (score < bestScore) {
+                best = backend;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // 응답 시간을 아는 백엔드들의 평균 (아무도 모르면 1 → 진행 중 요청 수만으로 비교)
+    private double meanKnownLatencyMillis() {
+        double sum = 0;
+        int known = 0;
+        for (Backend backend : backends) {
+            double latency = backend.averageLatencyMillis;
+            if (latency >= 0) {
+                sum += latency;
+                known++;
+            }
+        }
+        return known == 0 ? 1.0 : sum / known;
+    }
+
+    /**
+     * 제외된 백엔드에 헬스 체크를 보내고, 응답하면 다시 라우팅 대상에 포함합니다.
+     */
+    @Scheduled(fixedDelayString = "${ai.backends.health-interval-ms:10000}")
+    public void probeEjected() {
+        for (Backend backend : backends) {
+            if (backend.ejected && probe(backend)) {
+                backend.reinstate();
+                System.out.println("AI 서버 복귀: " + backend.url);
+            }
+        }
+    }
+
+    public List<Backend> backends() {
+        return backends;
+    }
+
+    private boolean probe(Backend backend) {
+        HttpGet request = new HttpGet(URI.create(backend.url).resolve(healthPath));
+        request.setConfig(probeConfig);
+        try {
+            return httpClient.execute(request, response -> response.getCode() >= 200 && response.getCode() < 300);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public final class Lease {
+        private final Backend backend;
+        private final long startedAt;
+        private boolean released;
+
+        private Lease(Backend backend, long startedAt) {
+            this.backend = backend;
+            this.startedAt = startedAt;
+        }
+
+        public Backend backend() {
+            return backend;
+        }
+
+        // 응답을 받음 → 응답 시간 반영, 연속 실패 초기화
+        public void succeeded() {
+            if (release()) {
+                backend.recordLatency((System.nanoTime() - startedAt) / 1_000_000.0);
+                backend.reinstate();
+            }
+        }
+
+        // 연결 실패/5xx 등 백엔드 문제
+        public void failed() {
+            if (release() && backend.consecutiveFailures.incrementAndGet() >= failureThreshold && !backend.ejected) {
+                backend.eject();
+                System.err.println("AI 서버 제외 (연속 " + failureThreshold + "회 실패): " + backend.url);
+            }
+        }
+
+        private boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            backend.outstanding.decrementAndGet();
+            return true;
+        }
+    }
+
+    public static final class Backend {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final Counter ejections;
+        private volatile boolean ejected;
+        // 아직 응답 시간을 모르면 -1 (새 백엔드나 실패만 한 백엔드는 다른 백엔드들의 평균으로 취급)
+        private volatile double averageLatencyMillis = -1;
+
+        private Backend(String url, MeterRegistry meterRegistry) {
+            this.url = url;
+            this.ejections = meterRegistry.counter("ai.backends.ejections", "backend", url);
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isHealthy() {
+            return !ejected;
+        }
+
+        private double latencyMillis(double unknownLatency) {
+            double latency = averageLatencyMillis;
+            return latency < 0 ? unknownLatency : latency;
+        }
+
+        private synchronized void recordLatency(double millis) {
+            averageLatencyMillis = averageLatencyMillis < 0
+                ? millis
+                : averageLatencyMillis + EWMA_ALPHA * (millis - averageLatencyMillis);
+        }
+
+        private void eject() {
+            ejected = true;
+            ejections.increment();
+        }
+
+        private void reinstate() {
+            consecutiveFailures.set(0);
+            ejected = false;
+        }
+    }
+}
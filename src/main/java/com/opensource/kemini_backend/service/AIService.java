@@ -1,64 +1,386 @@
 package com.opensource.kemini_backend.service;
 
+import com.opensource.kemini_backend.exception.TooManyRequestsException;
+import com.opensource.kemini_backend.exception.UpstreamUnavailableException;
+import com.opensource.kemini_backend.utility.Bulkhead;
+import com.opensource.kemini_backend.utility.ContentHash;
+import com.opensource.kemini_backend.utility.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
 public class AIService {
 
+    private static final int COPY_BUFFER_SIZE = 16 * 1024;
+
     private final RestTemplate restTemplate;
-    private final String aiServerUrl;
+    private final ModelResultCache modelCache;
+    private final AIBackendRouter backendRouter;
+    private final ImageNormalizer imageNormalizer;
+    private final GlbOptimizer glbOptimizer;
+    private final long sharedWaitMillis;
+    // 결과 모델에 영향을 주는 설정(이미지 정규화, GLB 최적화, 수동 버전)을 묶은 값
+    private final String pipelineVersion;
+
+    // 같은 이미지(hash)로 동시에 들어온 AI 서버 호출을 하나로 합침 (Unity 재시도, 동일 이미지 동시 업로드)
+    private final SingleFlight<String, ModelResultCache.SharedModel> inFlight = new SingleFlight<>();
+    // 공유 호출은 요청 스레드와 분리된 스레드에서 실행 → 기다리던 요청이 끊겨도 호출은 끝까지 진행되어 캐시에 저장됨
+    // (벌크헤드가 받아 줄 수 있는 수(동시 실행 + 대기열)만큼만 스레드를 만들고, 넘치면 429)
+    private final ThreadPoolExecutor upstreamExecutor;
+    // AI 서버 동시 호출 제한 (초과분은 대기열에서 기다리다 429)
+    private final Bulkhead bulkhead;
+    private final Counter sharedWaits;
+    private final Counter upstreamCalls;
 
     // 생성자
     public AIService(RestTemplate restTemplate,
-                     @Value("${ai.server.url}") String aiServerUrl) {
+                     ModelResultCache modelCache,
+                     MeterRegistry meterRegistry,
+                     AIBackendRouter backendRouter,
+                     ImageNormalizer imageNormalizer,
+                     GlbOptimizer glbOptimizer,
+                     @Value("${ai.cache.pipeline-version:1}") String pipelineVersion,
+                     @Value("${ai.inflight.wait-timeout-ms:600000}") long sharedWaitMillis,
+                     @Value("${ai.bulkhead.max-concurrent:4}") int maxConcurrent,
+                     @Value("${ai.bulkhead.max-queue:16}") int maxQueue,
+                     @Value("${ai.bulkhead.max-wait-ms:30000}") long maxQueueWaitMillis) {
         this.restTemplate = restTemplate;
-        this.aiServerUrl = aiServerUrl;
+        this.modelCache = modelCache;
+        this.backendRouter = backendRouter;
+        this.imageNormalizer = imageNormalizer;
+        this.glbOptimizer = glbOptimizer;
+        this.sharedWaitMillis = sharedWaitMillis;
+        // 최적화 코드 자체를 바꿨을 때는 ai.cache.pipeline-version을 올려 기존 캐시를 무시
+        this.pipelineVersion = pipelineVersion + "|" + imageNormalizer.settingsVersion() + "|" + glbOptimizer.settingsVersion();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.upstreamExecutor = new ThreadPoolExecutor(
+            0, maxConcurrent + maxQueue, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ai-upstream-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // waits - upstream-calls = 합쳐진(AI 서버를 호출하지 않은) 요청 수
+        this.bulkhead = new Bulkhead("ai.bulkhead", maxConcurrent, maxQueue, maxQueueWaitMillis, meterRegistry);
+        this.sharedWaits = meterRegistry.counter("ai.inflight.waits");
+        this.upstreamCalls = meterRegistry.counter("ai.inflight.upstream-calls");
+        Gauge.builder("ai.inflight.calls", inFlight, SingleFlight::inFlightCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        upstreamExecutor.shutdownNow();
+    }
+
+    /**
+     * 생성된 .glb를 메모리에 모으지 않고 그대로 흘려보내기 위한 핸들
+     * (캐시 파일 또는 방금 생성된 파일) 사용한 뒤 반드시 close 해야 파일이 반환됩니다.
+     */
+    public static final class ModelStream implements Closeable {
+        private final InputStream body;
+        private final long contentLength;
+
+        private ModelStream(InputStream body, long contentLength) {
+            this.body = body;
+            this.contentLength = contentLength;
+        }
+
+        // 모델 크기 (모르면 -1)
+        public long contentLength() {
+            return contentLength;
+        }
+
+        // 본문을 고정 크기 버퍼로 복사
+        public long transferTo(OutputStream out) throws IOException {
+            return body.transferTo(out);
+        }
+
+        // 본문을 InputStream으로 제공 (S3 업로드 등에 사용)
+        public InputStream inputStream() {
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+
+    /**
+     * 이미지로 3D 모델을 생성하고 .glb(바이너리) 스트림을 반환합니다.
+     *
+     * - 업로드 이미지의 SHA-256으로 캐시(로컬 디스크 → S3)를 먼저 조회하고, 있으면 AI 서버를 호출하지 않음
+     * - 캐시에 없으면 이미지를 정규화(축소/EXIF 제거/재인코딩)한 뒤 AI 서버로 전송 (캐시 키는 원본 이미지 기준)
+     * - 같은 이미지로 진행 중인 AI 서버 호출이 있으면 새로 호출하지 않고 그 결과(방금 저장된 파일)를 함께 받음
+     * - 없으면 업로드 파일을 임시 저장된 원본(MultipartFile.getInputStream)에서 바로 요청 본문으로 복사
+     *   (multipart 본문을 직접 작성하고 Content-Length를 미리 계산하여 요청 전체를 메모리에 올리지 않음)
+     * - 응답 .glb는 최적화(GlbOptimizer)한 뒤 캐시 파일로 저장하고, 기다리던 요청 모두에게 그 파일 스트림으로 전달
+     *   (캐시에서 곧바로 밀려나도 열어 둔 파일로 전달하며, 저장 자체가 실패하면 AI 서버를 다시 호출하지 않고 오류)
+     * 업로드/다운로드 복사는 고정 크기 버퍼를 사용하고, 메모리에 올리는 것은 정규화된 이미지와
+     * ai.glb.max-input-bytes 이하의 최적화 대상 모델뿐입니다.
+     */
+    public ModelStream generate3DModel(MultipartFile imageFile) {
+        String imageHash;
+        try (InputStream in = imageFile.getInputStream()) {
+            imageHash = ContentHash.of(in);
+        } catch (IOException e) {
+            throw new RuntimeException("업로드 파일 읽기 오류: " + e.getMessage());
+        }
+        return generate3DModel(imageHash, imageFile, imageFile.getOriginalFilename(), imageFile.getContentType(), imageFile.getSize());
+    }
+
+    /**
+     * 해시를 이미 알고 있는 입력(비동기 작업의 임시 파일 등)으로 요청합니다.
+     */
+    public ModelStream generate3DModel(String imageHash, InputStreamSource image, String fileName, String contentType, long size) {
+        // 같은 이미지라도 정규화/최적화 설정이 바뀌면 다른 결과이므로 설정 버전을 키에 포함
+        String cacheKey = cacheKey(imageHash);
+        Optional<ModelResultCache.CachedModel> cached = modelCache.open(cacheKey);
+        if (cached.isPresent()) {
+            return fromCache(cached.get());
+        }
+
+        // 같은 이미지의 호출이 진행 중이면 합류, 없으면 새로 시작하고 완료(캐시 저장)까지 대기
+        return awaitSharedCall(cacheKey, image, fileName, contentType, size);
+    }
+
+    // 캐시/중복 합치기 키: SHA-256(파이프라인 버전 + ":" + 이미지 해시)
+    private String cacheKey(String imageHash) {
+        MessageDigest digest = ContentHash.newDigest();
+        digest.update((pipelineVersion + ":" + imageHash).getBytes(StandardCharsets.UTF_8));
+        return ContentHash.hex(digest);
+    }
+
+    private static ModelStream fromCache(ModelResultCache.CachedModel cached) {
+        return new ModelStream(cached.body(), cached.size());
     }
 
     /**
-     * 이미지를 AI 서버로 중계하고, AI가 생성한 .glb(바이너리)를 byte[]로 반환합니다.
+     * 공유 호출 결과(leader가 저장한 파일)를 기다렸다가 엽니다.
+     * 시간 초과/인터럽트로 이 요청이 포기해도 공유 호출은 취소하지 않으므로, 재시도 시 캐시에서 바로 받을 수 있습니다.
      */
-    public byte[] generate3DModel(MultipartFile imageFile) {
+    private ModelStream awaitSharedCall(String cacheKey, InputStreamSource image, String fileName, String contentType, long size) {
+        sharedWaits.increment();
+        CompletableFuture<ModelResultCache.SharedModel> shared = inFlight.submit(cacheKey, () -> {
+            upstreamCalls.increment();
+            return generateIntoCache(cacheKey, image, fileName, contentType, size);
+        }, ModelResultCache.SharedModel::release, upstreamExecutor);
+        // 완료되는 즉시(완료시키는 스레드에서) 열어야 leader가 참조를 반환하기 전에 파일을 받을 수 있음
+        CompletableFuture<Optional<ModelResultCache.CachedModel>> opened = shared.thenApply(ModelResultCache.SharedModel::open);
+
+        try {
+            Optional<ModelResultCache.CachedModel> model = opened.get(sharedWaitMillis, TimeUnit.MILLISECONDS);
+            if (model.isEmpty()) {
+                // 호출이 끝나는 순간에 합류하여 파일이 이미 닫힌 경우 → 방금 등록된 캐시에서 받음
+                model = modelCache.openCommitted(cacheKey);
+            }
+            return fromCache(model.orElseThrow(() -> new RuntimeException("생성된 모델을 열 수 없습니다. 다시 시도해주세요.")));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw new TooManyRequestsException("AI 모델 생성 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            // 공유 호출이 Error로 끝난 경우 (일시적인 장애로 보지 않음)
+            throw new RuntimeException("AI 모델 생성 실패: " + e.getCause());
+        } catch (TimeoutException e) {
+            closeWhenOpened(opened);
+            throw new UpstreamUnavailableException("AI 서버 응답 대기 시간 초과");
+        } catch (InterruptedException e) {
+            closeWhenOpened(opened);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("AI 모델 생성 대기 중단");
+        }
+    }
+
+    // 기다리기를 포기한 요청 몫으로 나중에 열리는 스트림은 바로 닫아 파일 참조를 반환
+    private static void closeWhenOpened(CompletableFuture<Optional<ModelResultCache.CachedModel>> opened) {
+        opened.thenAccept(model -> model.ifPresent(cached -> {
+            try {
+                cached.body().close();
+            } catch (IOException ignored) {
+                // 공유 파일 스트림의 close는 실패하지 않음
+            }
+        }));
+    }
+
+    // 공유 호출 본체: AI 서버 응답을 끝까지 받아 캐시에 저장하고, 기다리던 요청들이 열 수 있는 파일을 반환
+    private ModelResultCache.SharedModel generateIntoCache(String cacheKey, InputStreamSource image, String fileName, String contentType, long size) {
+        // 이미지 정규화(CPU)는 AI 서버 슬롯을 잡기 전에 수행
+        ImageNormalizer.NormalizedImage normalized = imageNormalizer.normalize(image, fileName, contentType, size);
+        ModelResultCache.Writer writer = modelCache.newWriter(cacheKey);
         try {
-            // 헤더 생성
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            // AI 서버로 보낼 'file' 폼 데이터 생성
-            ByteArrayResource fileAsResource = new ByteArrayResource(imageFile.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return imageFile.getOriginalFilename();
+            byte[] model;
+            try (Bulkhead.Permit permit = bulkhead.acquire();
+                 ClientHttpResponse response = requestModel(normalized);
+                 InputStream body = response.getBody()) {
+                // GLB 최적화 대상이면 메모리로 받고, 너무 크거나 꺼져 있으면 그대로 캐시에 기록
+                model = glbOptimizer.isEnabled() ? body.readNBytes(glbOptimizer.maxInputBytes() + 1) : null;
+                if (model == null || model.length > glbOptimizer.maxInputBytes()) {
+                    if (model != null) {
+                        writer.write(model, 0, model.length);
+                    }
+                    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                    int read;
+                    while ((read = body.read(buffer)) != -1) {
+                        writer.write(buffer, 0, read);
+                    }
+                    return commit(writer);
+                }
+            }
+
+            // AI 서버 연결과 벌크헤드 슬롯을 반환한 뒤 최적화 (캐시에는 최적화된 모델이 저장됨)
+            byte[] optimized = glbOptimizer.optimize(model);
+            writer.write(optimized, 0, optimized.length);
+            return commit(writer);
+        } catch (IOException e) {
+            throw new UpstreamUnavailableException("AI 서버 통신 오류: " + e.getMessage());
+        } finally {
+            writer.abort(); // commit 이후면 아무 일도 하지 않음
+        }
+    }
+
+    // 디스크에 기록하지 못했으면 기다리던 요청 모두 실패 (요청마다 AI 서버를 다시 호출하지 않음)
+    private static ModelResultCache.SharedModel commit(ModelResultCache.Writer writer) {
+        return writer.commit()
+            .orElseThrow(() -> new RuntimeException("생성된 모델 저장 실패"));
+    }
+
+    /**
+     * AI 서버 호출 (응답 본문은 읽지 않은 채 반환)
+     * 라우터가 고른 백엔드로 보내고, 연결 자체가 실패하면(요청이 서버에 닿지 않음) 다른 백엔드로 한 번 더 시도합니다.
+     */
+    private ClientHttpResponse requestModel(ImageNormalizer.NormalizedImage image) {
+        AIBackendRouter.Backend excluded = null;
+        while (true) {
+            AIBackendRouter.Lease lease = backendRouter.acquire(excluded);
+            ClientHttpResponse response;
+            int status;
+            try {
+                response = send(lease.backend().url(), image.source(), image.fileName(), image.contentType(), image.size());
+            } catch (ConnectException e) {
+                lease.failed();
+                if (excluded == null && backendRouter.backends().size() > 1) {
+                    excluded = lease.backend();
+                    continue;
                 }
-            };
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", fileAsResource);
+                throw new UpstreamUnavailableException("AI 서버 통신 오류: " + e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                lease.failed();
+                throw new UpstreamUnavailableException("AI 서버 통신 오류: " + e.getMessage());
+            }
+
+            try {
+                status = response.getStatusCode().value();
+            } catch (IOException e) {
+                lease.failed();
+                response.close();
+                throw new UpstreamUnavailableException("AI 서버 통신 오류: " + e.getMessage());
+            }
+
+            // 5xx만 백엔드 장애로 집계 (4xx는 요청 자체의 문제)
+            if (status >= 500) {
+                lease.failed();
+            } else {
+                lease.succeeded();
+            }
+            if (status < 200 || status >= 300) {
+                response.close();
+                String message = "AI 서버 응답 오류 (" + status + ")";
+                throw status >= 500 ? new UpstreamUnavailableException(message) : new RuntimeException(message);
+            }
+
+            // AI 서버가 보낸 3D 모델(바이너리)을 스트림 그대로 반환
+            return response;
+        }
+    }
+
+    // multipart 요청 전송 (응답 헤더까지 수신)
+    private ClientHttpResponse send(String url, InputStreamSource image, String fileName, String contentType, long size)
+            throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        byte[] preamble = partHeader(boundary, fileName, contentType);
+        byte[] epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        ClientHttpRequest request = restTemplate.getRequestFactory()
+            .createRequest(URI.create(url), HttpMethod.POST);
 
-            // 헤더와 바디를 합쳐 HTTP 요청 엔티티 생성
-            HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        // 헤더 생성
+        HttpHeaders headers = request.getHeaders();
+        headers.setContentType(new MediaType(MediaType.MULTIPART_FORM_DATA, Map.of("boundary", boundary)));
+        headers.setContentLength(preamble.length + size + epilogue.length);
 
-            // AI 서버에 POST 요청 (byte[].class로 응답 받음)
-            ResponseEntity<byte[]> response = restTemplate.postForEntity(
-                aiServerUrl,
-                requestEntity,
-                byte[].class
-            );
+        // AI 서버로 보낼 'file' 폼 데이터를 스트리밍으로 작성
+        // (getBody()는 본문 전체를 메모리에 모은 뒤 전송하므로, 연결에 바로 쓰는 setBody 사용)
+        StreamingHttpOutputMessage.Body multipart = body -> {
+            body.write(preamble);
+            try (InputStream file = image.getInputStream()) {
+                file.transferTo(body);
+            }
+            body.write(epilogue);
+        };
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(multipart);
+        } else {
+            multipart.writeTo(request.getBody());
+        }
 
-            // AI 서버가 보낸 3D 모델(바이너리)을 그대로 반환
-            return response.getBody();
+        // AI 서버에 POST 요청
+        return request.execute();
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("AI 서버 통신 오류: " + e.getMessage());
+    // 'file' 파트의 구분자 + 헤더
+    private static byte[] partHeader(String boundary, String fileName, String contentType) {
+        if (fileName == null) {
+            fileName = "image";
         }
+        if (contentType == null) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+
+        String header = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\""
+            + fileName.replaceAll("[\r\n]", "").replace("\\", "\\\\").replace("\"", "\\\"") + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n"
+            + "\r\n";
+        return header.getBytes(StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.dto.AccountPurgeJobDto;
+import com.opensource.kemini_backend.model.AccountPurgeJob;
+import com.opensource.kemini_backend.model.AccountPurgeJob.Status;
+import com.opensource.kemini_backend.repository.AccountPurgeJobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 탈퇴 데이터 정리 (백그라운드)
+ *
+ * 1. 탈퇴 요청 트랜잭션 안에서 작업(account_purge_jobs)을 등록하고, 커밋되면 바로 실행
+ * 2. S3: users/{uid}/ 아래 객체를 ListObjectsV2(1000개씩) → DeleteObjects 로 페이지 단위 삭제
+ * 3. DB: environment_files → virtual_environments → users 를 bulk DELETE (한 트랜잭션)
+ * 4. COMPLETED 기록
+ *
+ * 각 단계는 다시 실행해도 안전하므로 실패/서버 재시작 시 처음부터 다시 실행합니다.
+ * (중단된 작업과 실패한 작업은 주기적으로 다시 실행, 간격은 retry-backoff-ms × 2^(실패 횟수 - 1), 최대 max-backoff-ms)
+ * account-purge.max-attempts회 실패하면 ABANDONED로 끝내고, users 행의 이메일을 풀어(DELETING 상태로 남지 않도록)
+ * 같은 이메일로 다시 가입할 수 있게 합니다. 남은 데이터는 user_id 기준이므로 운영자가 작업을 PENDING으로 되돌려 다시 정리할 수 있습니다.
+ *
+ * 지표: account-purge.abandoned (ABANDONED로 끝난 작업 수), account-purge.abandoned-jobs (현재 ABANDONED 작업 수)
+ */
+@Service
+public class AccountPurgeService {
+
+    private static final List<Status> RETRYABLE = List.of(Status.PENDING, Status.FAILED);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String DELETE_FILES_SQL =
+        "DELETE FROM environment_files WHERE virtual_environment_id IN (SELECT id FROM virtual_environments WHERE user_id = ?)";
+    private static final String DELETE_ENVIRONMENTS_SQL = "DELETE FROM virtual_environments WHERE user_id = ?";
+    private static final String DELETE_USER_SQL = "DELETE FROM users WHERE id = ?";
+    // 정리를 포기한 사용자의 이메일을 다른 값으로 바꿔 다시 가입할 수 있게 함 (users.email은 고유)
+    private static final String RELEASE_EMAIL_SQL = "UPDATE users SET email = ?, status = 'PURGE_FAILED' WHERE id = ?";
+
+    // 커밋 이후 실행을 위한 이벤트
+    public record PurgeRequestedEvent(Long jobId) {}
+
+    private final AccountPurgeJobRepository jobRepository;
+    private final S3Service s3Service;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long staleAfterMillis;
+
+    private final AtomicLong abandonedJobs = new AtomicLong();
+    private final Counter abandonedCounter;
+
+    public AccountPurgeService(
+        AccountPurgeJobRepository jobRepository,
+        S3Service s3Service,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        ApplicationEventPublisher eventPublisher,
+        @Qualifier("applicationTaskExecutor") Executor executor,
+        MeterRegistry meterRegistry,
+        @Value("${account-purge.max-attempts:10}") int maxAttempts,
+        @Value("${account-purge.retry-backoff-ms:60000}") long retryBackoffMillis,
+        @Value("${account-purge.max-backoff-ms:3600000}") long maxBackoffMillis,
+        @Value("${account-purge.stale-after-ms:600000}") long staleAfterMillis) {
+        this.jobRepository = jobRepository;
+        this.s3Service = s3Service;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.staleAfterMillis = staleAfterMillis;
+
+        Gauge.builder("account-purge.abandoned-jobs", abandonedJobs, AtomicLong::get).register(meterRegistry);
+        this.abandonedCounter = meterRegistry.counter("account-purge.abandoned");
+    }
+
+    /**
+     * 정리 작업을 등록합니다. (호출하는 쪽의 트랜잭션 안에서 실행)
+     * 이미 등록된 사용자면 기존 작업을 그대로 반환합니다.
+     */
+    public AccountPurgeJobDto requestPurge(Long userId, String email) {
+        AccountPurgeJob job = jobRepository.findByUserId(userId)
+            .orElseGet(() -> jobRepository.save(new AccountPurgeJob(userId, email)));
+
+        if (job.getStatus() != Status.COMPLETED) {
+            eventPublisher.publishEvent(new PurgeRequestedEvent(job.getId()));
+        }
+        return AccountPurgeJobDto.from(job);
+    }
+
+    public Optional<AccountPurgeJobDto> getStatus(Long userId) {
+        return jobRepository.findByUserId(userId).map(AccountPurgeJobDto::from);
+    }
+
+    @TransactionalEventListener
+    public void onPurgeRequested(PurgeRequestedEvent event) {
+        executor.execute(() -> run(event.jobId()));
+    }
+
+    // 실패했거나 서버 재시작 등으로 중단된 작업 재실행
+    @Scheduled(fixedDelayString = "${account-purge.poll-interval-ms:60000}")
+    public void resumePending() {
+        Instant now = Instant.now();
+        List<Long> jobIds = jobRepository.findRunnableIds(
+            RETRYABLE, Status.RUNNING, now, now.minusMillis(staleAfterMillis), PageRequest.of(0, 10));
+        jobIds.forEach(this::run);
+        abandonedJobs.set(jobRepository.countByStatus(Status.ABANDONED));
+    }
+
+    private void run(Long jobId) {
+        Instant now = Instant.now();
+        if (jobRepository.claim(jobId, RETRYABLE, Status.RUNNING, now, now.minusMillis(staleAfterMillis)) == 0) {
+            return; // 이미 완료되었거나 다른 곳에서 실행 중
+        }
+
+        AccountPurgeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            // S3 객체 삭제 (페이지마다 진행 상황 기록)
+            s3Service.deleteAllUnderPrefix("users/" + job.getUserId() + "/", deleted -> {
+                job.setObjectsDeleted(job.getObjectsDeleted() + deleted);
+                job.setUpdatedAt(Instant.now());
+                jobRepository.save(job);
+            });
+
+            // DB 행 bulk 삭제
+            Integer environments = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(DELETE_FILES_SQL, job.getUserId());
+                int deleted = jdbcTemplate.update(DELETE_ENVIRONMENTS_SQL, job.getUserId());
+                jdbcTemplate.update(DELETE_USER_SQL, job.getUserId());
+                return deleted;
+            });
+
+            job.setEnvironmentsDeleted(job.getEnvironmentsDeleted() + (environments == null ? 0 : environments));
+            job.setStatus(Status.COMPLETED);
+            job.setLastError(null);
+            job.setCompletedAt(Instant.now());
+        } catch (Exception e) {
+            System.err.println("회원 데이터 정리 실패 (userId: " + job.getUserId() + "): " + e.getMessage());
+            job.setStatus(Status.FAILED);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLastError(truncate(e.getMessage()));
+            job.setNextAttemptAt(Instant.now().plusMillis(backoffMillis(job.getAttempts())));
+            if (job.getAttempts() >= maxAttempts) {
+                abandon(job);
+            }
+        }
+        job.setUpdatedAt(Instant.now());
+        jobRepository.save(job);
+    }
+
+    // 더 이상 자동으로 재시도하지 않고 이메일을 풀어 줌 (실패하면 FAILED로 남아 다음 주기에 다시 시도)
+    private void abandon(AccountPurgeJob job) {
+        try {
+            jdbcTemplate.update(RELEASE_EMAIL_SQL, "purge-failed+" + job.getUserId() + "@deleted.invalid", job.getUserId());
+            job.setStatus(Status.ABANDONED);
+            abandonedCounter.increment();
+            System.err.println("회원 데이터 정리 중단 (userId: " + job.getUserId() + ", 시도 " + job.getAttempts() + "회), 이메일 해제");
+        } catch (Exception e) {
+            System.err.println("탈퇴 사용자 이메일 해제 실패 (userId: " + job.getUserId() + "): " + e.getMessage());
+        }
+    }
+
+    private long backoffMillis(int attempts) {
+        long backoff = retryBackoffMillis << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffMillis);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,97 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.dto.SignUpRequestDto;
+import com.opensource.kemini_backend.utility.CognitoSecretHashEngine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminConfirmSignUpRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminDeleteUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.SignUpRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 회원가입 시 Cognito 쪽 작업(signUp → adminConfirmSignUp, 실패 시 삭제)을 비동기로 수행합니다.
+ * (일반 회원가입과 관리자 대량 등록에서 함께 사용)
+ */
+@Component
+public class CognitoSignUpClient {
+
+    @Value("${aws.cognito.clientId}")
+    private String clientId;
+    @Value("${aws.cognito.userPoolId}")
+    private String userPoolId;
+
+    private final CognitoIdentityProviderAsyncClient cognitoAsyncClient;
+    private final CognitoSecretHashEngine secretHashEngine;
+
+    public CognitoSignUpClient(
+        CognitoIdentityProviderAsyncClient cognitoAsyncClient,
+        CognitoSecretHashEngine secretHashEngine) {
+        this.cognitoAsyncClient = cognitoAsyncClient;
+        this.secretHashEngine = secretHashEngine;
+    }
+
+    /**
+     * Cognito에 사용자를 생성하고 바로 확인(CONFIRMED) 상태로 만듭니다.
+     * 확인 단계에서 실패하면 생성된 계정을 삭제한 뒤 원래 오류로 실패합니다.
+     */
+    public CompletableFuture<Void> registerConfirmed(SignUpRequestDto signUpRequest, String normalizedPhone) {
+
+        // 변환된 번호로 Cognito 속성 생성
+        List<AttributeType> userAttributes = List.of(
+            AttributeType.builder().name("email").value(signUpRequest.email()).build(),
+            AttributeType.builder().name("name").value(signUpRequest.name()).build(),
+            AttributeType.builder().name("phone_number").value(normalizedPhone).build()
+        );
+
+        SignUpRequest cognitoSignUpRequest = SignUpRequest.builder()
+                .clientId(clientId)
+                .secretHash(secretHashEngine.calculate(signUpRequest.email()))
+                .username(signUpRequest.email()) 
+                .password(signUpRequest.password())
+                .userAttributes(userAttributes)
+                .build();
+
+        AdminConfirmSignUpRequest adminConfirmRequest = AdminConfirmSignUpRequest.builder()
+            .userPoolId(userPoolId)
+            .username(signUpRequest.email())
+            .build();
+
+        return cognitoAsyncClient.signUp(cognitoSignUpRequest)
+            .thenCompose(signUpResponse -> cognitoAsyncClient.adminConfirmSignUp(adminConfirmRequest)
+                .thenAccept(confirmed -> {})
+                .exceptionallyCompose(e -> deleteQuietly(signUpRequest.email())
+                    .thenCompose(ignored -> CompletableFuture.<Void>failedFuture(e))));
+    }
+
+    /**
+     * 보상 처리용 Cognito 사용자 삭제
+     * (실패해도 원래 오류를 그대로 전달하기 위해 예외를 던지지 않음)
+     */
+    public CompletableFuture<Void> deleteQuietly(String email) {
+        AdminDeleteUserRequest deleteRequest = AdminDeleteUserRequest.builder()
+            .userPoolId(userPoolId)
+            .username(email)
+            .build();
+
+        return cognitoAsyncClient.adminDeleteUser(deleteRequest)
+            .handle((response, e) -> {
+                if (e != null) {
+                    System.err.println("회원가입 보상 처리(Cognito 사용자 삭제) 실패: " + email + ", Error: " + unwrap(e).getMessage());
+                }
+                return null;
+            });
+    }
+
+    // CompletableFuture가 감싼 실제 예외 꺼내기
+    public static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,206 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.model.CognitoSyncOutbox;
+import com.opensource.kemini_backend.model.CognitoSyncOutbox.Status;
+import com.opensource.kemini_backend.repository.CognitoSyncOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminUpdateUserAttributesRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * cognito_sync_outbox를 주기적으로 읽어 Cognito 사용자 속성에 반영
+ *
+ * - 한 번에 처리할 때가 된 사용자 batch-size명씩 선점(claim_token + lease-ms 동안 유효한 lease_until)한 뒤 처리
+ *   (여러 인스턴스가 같은 변경을 동시에 보내지 않고, 처리 중 서버가 죽으면 lease가 끝난 뒤 다른 곳에서 다시 처리)
+ * - 같은 사용자의 대기 중인 변경이 여러 개면 순서대로 합쳐 AdminUpdateUserAttributes 한 번으로 전송
+ *   (같은 사용자의 이전 변경을 다른 곳에서 처리 중이면, 순서가 뒤바뀌지 않도록 끝난 뒤에 처리)
+ * - 실패하면 지수 백오프(initial-backoff-ms × 2^attempts, 최대 max-backoff-ms)로 재시도
+ * - max-attempts번 실패했거나 Cognito가 값을 거부하면(InvalidParameter) FAILED로 남기고 중단 (dead letter)
+ * - Cognito에 사용자가 없는 경우(탈퇴)는 반영할 대상이 없으므로 버림
+ *
+ * 지표: cognito.outbox.pending, cognito.outbox.dead-letter(FAILED 행 수), cognito.outbox.dispatched,
+ *       cognito.outbox.collapsed, cognito.outbox.failures, cognito.outbox.dead-lettered, cognito.outbox.dropped
+ */
+@Component
+public class CognitoSyncOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Value("${aws.cognito.userPoolId}")
+    private String userPoolId;
+
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoSyncOutboxRepository outboxRepository;
+    private final int batchSize;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+    private final long leaseMillis;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong deadLetter = new AtomicLong();
+    private final Counter dispatchedCounter;
+    private final Counter collapsedCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter droppedCounter;
+
+    public CognitoSyncOutboxDispatcher(
+        CognitoIdentityProviderClient cognitoClient,
+        CognitoSyncOutboxRepository outboxRepository,
+        MeterRegistry meterRegistry,
+        @Value("${cognito.outbox.batch-size:100}") int batchSize,
+        @Value("${cognito.outbox.initial-backoff-ms:1000}") long initialBackoffMillis,
+        @Value("${cognito.outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+        @Value("${cognito.outbox.max-attempts:10}") int maxAttempts,
+        @Value("${cognito.outbox.lease-ms:60000}") long leaseMillis) {
+        this.cognitoClient = cognitoClient;
+        this.outboxRepository = outboxRepository;
+        this.batchSize = batchSize;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.leaseMillis = leaseMillis;
+
+        Gauge.builder("cognito.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("cognito.outbox.dead-letter", deadLetter, AtomicLong::get).register(meterRegistry);
+        this.dispatchedCounter = meterRegistry.counter("cognito.outbox.dispatched");
+        this.collapsedCounter = meterRegistry.counter("cognito.outbox.collapsed");
+        this.failureCounter = meterRegistry.counter("cognito.outbox.failures");
+        this.deadLetteredCounter = meterRegistry.counter("cognito.outbox.dead-lettered");
+        this.droppedCounter = meterRegistry.counter("cognito.outbox.dropped");
+    }
+
+    @Scheduled(fixedDelayString = "${cognito.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            List<String> emails;
+            do {
+                emails = outboxRepository.findDueEmails(Status.PENDING, Instant.now(), PageRequest.of(0, batchSize));
+                if (!emails.isEmpty()) {
+                    dispatchBatch(emails);
+                }
+            } while (emails.size() == batchSize);
+            pending.set(outboxRepository.countByStatus(Status.PENDING));
+            deadLetter.set(outboxRepository.countByStatus(Status.FAILED));
+        } catch (Exception e) {
+            System.err.println("Cognito 동기화 대기열 처리 오류: " + e.getMessage());
+        }
+    }
+
+    private void dispatchBatch(List<String> emails) {
+        // 이메일별로 대기 중인 변경을 선점 (재시도 대기 중인 이전 변경도 함께 합쳐야 오래된 값이 나중에 덮어쓰지 않음)
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        if (outboxRepository.claim(emails, Status.PENDING, token, now, now.plusMillis(leaseMillis)) == 0) {
+            return; // 다른 dispatcher가 먼저 선점
+        }
+
+        Map<String, List<CognitoSyncOutbox>> byEmail = new LinkedHashMap<>();
+        for (CognitoSyncOutbox entry : outboxRepository.findByClaimTokenOrderByIdAsc(token)) {
+            byEmail.computeIfAbsent(entry.getEmail(), k -> new ArrayList<>()).add(entry);
+        }
+
+        for (Map.Entry<String, List<CognitoSyncOutbox>> user : byEmail.entrySet()) {
+            List<CognitoSyncOutbox> entries = user.getValue();
+            List<Long> ids = entries.stream().map(CognitoSyncOutbox::getId).toList();
+
+            // 이전 변경을 다른 dispatcher가 보내는 중 → 그쪽이 끝난 뒤에 보내야 새 값이 마지막에 반영됨
+            if (outboxRepository.countClaimedByOthersBefore(
+                    user.getKey(), ids.get(0), Status.PENDING, token, Instant.now()) > 0) {
+                outboxRepository.release(ids, Instant.now().plusMillis(initialBackoffMillis));
+                continue;
+            }
+
+            try {
+                List<AttributeType> attributes = mergeAttributes(entries);
+                if (!attributes.isEmpty()) {
+                    cognitoClient.adminUpdateUserAttributes(AdminUpdateUserAttributesRequest.builder()
+                        .userPoolId(userPoolId)
+                        .username(user.getKey())
+                        .userAttributes(attributes)
+                        .build());
+                }
+                outboxRepository.deleteAllByIdInBatch(ids);
+                dispatchedCounter.increment();
+                collapsedCounter.increment(entries.size() - 1);
+            } catch (UserNotFoundException e) {
+                System.err.println("Cognito 속성 동기화 포기 (" + user.getKey() + "): " + e.getMessage());
+                outboxRepository.deleteAllByIdInBatch(ids);
+                droppedCounter.increment();
+            } catch (InvalidParameterException e) {
+                // 재시도해도 같은 결과이므로 FAILED로 남겨 확인할 수 있게 함
+                deadLetter(user.getKey(), ids, e);
+            } catch (Exception e) {
+                failureCounter.increment();
+                int attempts = entries.stream().mapToInt(CognitoSyncOutbox::getAttempts).max().orElse(0);
+                if (attempts + 1 >= maxAttempts) {
+                    deadLetter(user.getKey(), ids, e);
+                } else {
+                    outboxRepository.markRetry(ids, Instant.now().plusMillis(backoffMillis(attempts)), truncate(e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void deadLetter(String email, List<Long> ids, Exception e) {
+        System.err.println("Cognito 속성 동기화 중단, FAILED로 기록 (" + email + "): " + e.getMessage());
+        outboxRepository.markFailed(ids, Status.FAILED, truncate(e.getMessage()));
+        deadLetteredCounter.increment();
+    }
+
+    // 오래된 순으로 적용하여 속성별 마지막 값만 남김
+    private static List<AttributeType> mergeAttributes(List<CognitoSyncOutbox> entries) {
+        String name = null;
+        String phoneNumber = null;
+        for (CognitoSyncOutbox entry : entries) {
+            if (entry.getName() != null) {
+                name = entry.getName();
+            }
+            if (entry.getPhoneNumber() != null) {
+                phoneNumber = entry.getPhoneNumber();
+            }
+        }
+
+        List<AttributeType> attributes = new ArrayList<>();
+        if (name != null) {
+            attributes.add(AttributeType.builder().name("name").value(name).build());
+        }
+        if (phoneNumber != null) {
+            attributes.add(AttributeType.builder().name("phone_number").value(phoneNumber).build());
+        }
+        return attributes;
+    }
+
+    private long backoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts, 20);
+        return Math.min(backoff, maxBackoffMillis);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
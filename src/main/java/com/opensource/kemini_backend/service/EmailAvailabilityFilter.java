@@ -0,0 +1,145 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.utility.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * 아이디(이메일) 중복 확인용 블룸 필터
+ *
+ * - 시작 시 users.email 전체를 PK 순서로 나눠 읽어 필터 생성
+ *   (MySQL Connector/J는 useCursorFetch 없이 fetchSize를 무시하고 결과 전체를 메모리에 올리므로
+ *    드라이버 설정에 의존하지 않도록 id > 마지막 id 조건으로 페이지 단위 조회)
+ * - 회원가입/대량 등록 시 add로 즉시 반영
+ * - 블룸 필터는 삭제를 지원하지 않으므로, 탈퇴한 이메일을 정리하기 위해 주기적으로 재생성
+ * - 필터가 준비되지 않았으면 항상 "있을 수도 있음"으로 응답 → DB 조회로 넘어감
+ *
+ * 설정: auth.email-bloom.expected-insertions, auth.email-bloom.false-positive-rate, auth.email-bloom.page-size
+ * 지표: auth.email-bloom.size-bytes, .hash-functions, .insertions, .estimated-fpp, .lookups{result}
+ */
+@Component
+public class EmailAvailabilityFilter {
+
+    private static final String PAGE_SQL = "SELECT id, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter definitelyAbsentCounter;
+    private final Counter confirmedCounter;
+    private final Counter falsePositiveCounter;
+
+    private volatile BloomFilter current;
+    // 재생성 중에 들어온 add가 새 필터에서 빠지지 않도록 함께 기록
+    private volatile BloomFilter building;
+
+    public EmailAvailabilityFilter(
+        DataSource dataSource,
+        MeterRegistry meterRegistry,
+        @Value("${auth.email-bloom.expected-insertions:100000}") long expectedInsertions,
+        @Value("${auth.email-bloom.false-positive-rate:0.01}") double falsePositiveRate,
+        @Value("${auth.email-bloom.page-size:1000}") int pageSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.pageSize = pageSize;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        // 실제 오탐률 = false-positive / (false-positive + definitely-absent)
+        this.definitelyAbsentCounter = meterRegistry.counter("auth.email-bloom.lookups", "result", "definitely-absent");
+        this.confirmedCounter = meterRegistry.counter("auth.email-bloom.lookups", "result", "exists");
+        this.falsePositiveCounter = meterRegistry.counter("auth.email-bloom.lookups", "result", "false-positive");
+
+        Gauge.builder("auth.email-bloom.size-bytes", this, f -> f.current == null ? 0 : f.current.sizeInBytes())
+            .register(meterRegistry);
+        Gauge.builder("auth.email-bloom.hash-functions", this, f -> f.current == null ? 0 : f.current.hashFunctions())
+            .register(meterRegistry);
+        Gauge.builder("auth.email-bloom.insertions", this, f -> f.current == null ? 0 : f.current.insertions())
+            .register(meterRegistry);
+        Gauge.builder("auth.email-bloom.estimated-fpp", this, f -> f.current == null ? 0 : f.current.estimatedFalsePositiveRate())
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return false면 확실히 가입되지 않은 이메일 (DB 조회 불필요)
+     */
+    public boolean mightExist(String email) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(key(email));
+    }
+
+    /**
+     * 블룸 필터로 먼저 거르고, "있을 수도 있음"인 경우에만 DB를 조회합니다.
+     */
+    public boolean exists(String email, Predicate<String> databaseLookup) {
+        if (!mightExist(email)) {
+            definitelyAbsentCounter.increment();
+            return false;
+        }
+        boolean exists = databaseLookup.test(email);
+        (exists ? confirmedCounter : falsePositiveCounter).increment();
+        return exists;
+    }
+
+    public void add(String email) {
+        // 재생성 중인 필터를 먼저 확인해야 교체 시점에 add가 빠지지 않음
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key(email));
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(key(email));
+        }
+    }
+
+    /**
+     * users.email을 PK 순서로 페이지 단위로 읽어 새 필터를 만들고 교체합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.email-bloom.rebuild-interval-ms:3600000}",
+               initialDelayString = "${auth.email-bloom.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        building = next;
+        try {
+            long lastId = 0L;
+            int read;
+            do {
+                long[] pageLastId = { lastId };
+                int[] count = { 0 };
+                jdbcTemplate.query(PAGE_SQL, rs -> {
+                    pageLastId[0] = rs.getLong(1);
+                    next.put(key(rs.getString(2)));
+                    count[0]++;
+                }, lastId, pageSize);
+                lastId = pageLastId[0];
+                read = count[0];
+            } while (read == pageSize);
+            current = next;
+        } catch (Exception e) {
+            // 실패하면 기존 필터 유지 (처음이면 필터 없이 DB 조회)
+            System.err.println("이메일 블룸 필터 생성 실패: " + e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    // DB 콜레이션이 대소문자를 구분하지 않을 수 있으므로 소문자로 통일
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,14 +4,19 @@ import com.opensource.kemini_backend.dto.*;
 import com.opensource.kemini_backend.model.EnvironmentFile;
 import com.opensource.kemini_backend.model.User;
 import com.opensource.kemini_backend.model.VirtualEnvironment;
+import com.opensource.kemini_backend.repository.EnvironmentFileRepository;
 import com.opensource.kemini_backend.repository.UserRepository;
 import com.opensource.kemini_backend.repository.VirtualEnvironmentRepository;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @Transactional // 서비스 전체에 트랜잭션 적용
@@ -19,19 +24,25 @@ public class EnvironmentService {
 
     private final VirtualEnvironmentRepository envRepository;
     private final UserRepository userRepository;
+    private final EnvironmentFileRepository fileRepository;
     private final S3Service s3Service;
+    private final AIService aiService;
 
-    public EnvironmentService(VirtualEnvironmentRepository envRepository, UserRepository userRepository, S3Service s3Service) {
+    public EnvironmentService(VirtualEnvironmentRepository envRepository, UserRepository userRepository,
+                              EnvironmentFileRepository fileRepository, S3Service s3Service, AIService aiService) {
         this.envRepository = envRepository;
         this.userRepository = userRepository;
+        this.fileRepository = fileRepository;
         this.s3Service = s3Service;
+        this.aiService = aiService;
     }
 
     /**
      * [API 1] 새 가상환경 생성 (DB에만)
      */
-    public VirtualEnvironmentResponseDto createEnvironment(String email, VirtualEnvironmentRequestDto request) {
-        User user = findUserByEmail(email);
+    public VirtualEnvironmentResponseDto createEnvironment(Long userId, VirtualEnvironmentRequestDto request) {
+        // 인증 단계에서 확인된 ID이므로 SELECT 없이 참조(프록시)만 사용
+        User user = userRepository.getReferenceById(requireUserId(userId));
 
         VirtualEnvironment newEnv = new VirtualEnvironment(user, request.name());
         VirtualEnvironment savedEnv = envRepository.save(newEnv);
@@ -43,13 +54,12 @@ public class EnvironmentService {
     /**
      * [API 2] 파일 업로드 URL 요청 및 파일 정보 DB 저장
      */
-    public S3PresignedUrlResponseDto generateUploadUrl(String email, Long envId, S3PresignedUrlRequestDto request) {
-        User user = findUserByEmail(email);
-        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, user.getId());
+    public S3PresignedUrlResponseDto generateUploadUrl(Long userId, Long envId, S3PresignedUrlRequestDto request) {
+        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, requireUserId(userId));
 
         // 1. S3 경로 생성: users/{uid}/{envId}/{TYPE}/{fileName}
         String objectKey = String.format("users/%d/%d/%s/%s",
-                user.getId(),
+                userId,
                 envId,
                 request.fileType(), // SPACE or MARKER
                 request.fileName()
@@ -74,14 +84,41 @@ public class EnvironmentService {
         return new S3PresignedUrlResponseDto(presignedUrl, finalUrl);
     }
     
+    /**
+     * [API 3] AI로 3D 모델을 생성하여 가상환경 파일(MODEL)로 바로 저장
+     * 생성된 .glb를 클라이언트로 내려보내지 않고 S3(users/{uid}/{envId}/MODEL/...)에 스트리밍 업로드한 뒤 파일 정보를 저장합니다.
+     * (AI 서버 응답을 기다리는 동안 DB 연결을 점유하지 않도록 트랜잭션 없이 실행)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EnvironmentFileDto saveGeneratedModel(Long userId, Long envId, MultipartFile image) {
+        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, requireUserId(userId));
+
+        String fileName = modelFileName(image.getOriginalFilename());
+        String objectKey = String.format("users/%d/%d/MODEL/%s/%s", userId, envId, UUID.randomUUID(), fileName);
+
+        // 1. AI 서버(또는 모델 캐시)의 응답을 그대로 S3로 업로드
+        try (AIService.ModelStream model = aiService.generate3DModel(image)) {
+            s3Service.uploadStream(objectKey, model.inputStream(), "model/gltf-binary");
+        } catch (IOException e) {
+            throw new RuntimeException("AI 서버 통신 오류: " + e.getMessage());
+        }
+
+        // 2. DB에 새 파일 정보 저장 (실패하면 업로드한 객체 삭제)
+        try {
+            EnvironmentFile saved = fileRepository.save(new EnvironmentFile(env, "MODEL", fileName, objectKey));
+            return EnvironmentFileDto.from(saved, s3Service.getPublicFileUrl(objectKey));
+        } catch (RuntimeException e) {
+            s3Service.deleteFile(objectKey);
+            throw e;
+        }
+    }
+
     /**
      * [GET] 특정 사용자의 모든 가상환경 조회
      */
     @Transactional(readOnly = true)
-    public List<VirtualEnvironmentResponseDto> getAllEnvironments(String email) {
-        User user = findUserByEmail(email);
-        
-        List<VirtualEnvironment> envs = envRepository.findByUser_IdOrderByIdDesc(user.getId());
+    public List<VirtualEnvironmentResponseDto> getAllEnvironments(Long userId) {
+        List<VirtualEnvironment> envs = envRepository.findByUser_IdOrderByIdDesc(requireUserId(userId));
 
         return envs.stream()
             .map(this::mapToDto)
@@ -92,9 +129,8 @@ public class EnvironmentService {
      * [GET] 단일 가상환경 상세 조회
      */
     @Transactional(readOnly = true)
-    public VirtualEnvironmentResponseDto getEnvironmentById(String email, Long envId) {
-        User user = findUserByEmail(email);
-        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, user.getId());
+    public VirtualEnvironmentResponseDto getEnvironmentById(Long userId, Long envId) {
+        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, requireUserId(userId));
         
         return mapToDto(env);
     }
@@ -102,9 +138,8 @@ public class EnvironmentService {
     /**
      * [PUT] 가상환경 이름 수정
      */
-    public VirtualEnvironmentResponseDto updateEnvironmentName(String email, Long envId, VirtualEnvironmentRequestDto request) {
-        User user = findUserByEmail(email);
-        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, user.getId());
+    public VirtualEnvironmentResponseDto updateEnvironmentName(Long userId, Long envId, VirtualEnvironmentRequestDto request) {
+        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, requireUserId(userId));
 
         env.setName(request.name());
         VirtualEnvironment updatedEnv = envRepository.save(env);
@@ -115,9 +150,8 @@ public class EnvironmentService {
     /**
      * [DELETE] 가상환경 삭제 (포함된 모든 파일 삭제)
      */
-    public void deleteEnvironment(String email, Long envId) {
-        User user = findUserByEmail(email);
-        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, user.getId());
+    public void deleteEnvironment(Long userId, Long envId) {
+        VirtualEnvironment env = findEnvAndVerifyOwnership(envId, requireUserId(userId));
 
         // 1. 🚨 S3에서 연결된 모든 파일 삭제
         // (VirtualEnvironment -> EnvironmentFile 리스트 순회)
@@ -151,10 +185,22 @@ public class EnvironmentService {
         );
     }
 
-    // (사용자 조회 헬퍼)
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+    // (모델 파일 이름 헬퍼) 업로드 이미지 이름의 확장자를 .glb로 변경
+    private static String modelFileName(String imageFileName) {
+        if (imageFileName == null || imageFileName.isBlank()) {
+            return "generated_model.glb";
+        }
+        String name = imageFileName.replaceAll("[\\\\/]", "_");
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + ".glb";
+    }
+
+    // (사용자 ID 확인 헬퍼) 인증 필터가 principal에 담아준 ID 사용, DB에 없는 사용자면 null
+    private Long requireUserId(Long userId) {
+        if (userId == null) {
+            throw new RuntimeException("사용자를 찾을 수 없습니다.");
+        }
+        return userId;
     }
 
     // (소유권 검증 헬퍼)
@@ -0,0 +1,573 @@
+package com.opensource.kemini_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.opensource.kemini_backend.exception.TooManyRequestsException;
+import com.opensource.kemini_backend.utility.Glb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * AI 서버가 생성한 .glb를 더 작게 다시 쓰는 후처리 단계 (순수 Java)
+ *
+ * 각 단계는 설정으로 켜고 끌 수 있습니다. (ai.glb.passes.*)
+ * - prune: 어디에서도 참조하지 않는 accessor/bufferView를 제거하고 BIN 청크를 빈틈없이 다시 배치
+ * - dedupe: 내용이 같은 bufferView, 정의가 같은 accessor를 하나로 합침
+ * - quantize (기본 꺼짐): TEXCOORD(0~1 범위)는 정규화 unsigned short로 (glTF 기본 스펙),
+ *   NORMAL/TANGENT는 정규화 byte로 변환 (KHR_mesh_quantization 필요)
+ *
+ * 외부 버퍼(uri)나 지원하지 않는 확장(Draco, meshopt 등)을 쓰는 파일, 처리 중 오류가 난 파일은 원본 그대로 반환합니다.
+ *
+ * 모델 하나당 입력 + BIN 복사본 + 출력만큼 메모리를 쓰므로, 전용 풀(ai.glb.workers, 대기열 ai.glb.queue-capacity)에서만
+ * 실행하여 동시에 메모리에 올라가는 모델 수를 제한합니다. (대기열이 가득 차면 429)
+ *
+ * 지표: ai.glb.size-bytes{stage=before|after}, ai.glb.pass.saved-bytes{pass}, ai.glb.optimized{result}, ai.glb.queued
+ */
+@Component
+public class GlbOptimizer {
+
+    private static final int FLOAT = 5126;
+    private static final int BYTE = 5120;
+    private static final int UNSIGNED_SHORT = 5123;
+    private static final int ARRAY_BUFFER = 34962;
+    private static final String MESH_QUANTIZATION = "KHR_mesh_quantization";
+
+    // accessor/bufferView 참조 위치를 바꾸지 않는 확장만 허용 (KHR_materials_*는 접두어로 허용)
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of(
+        "KHR_texture_transform", "KHR_mesh_quantization", "KHR_texture_basisu", "EXT_texture_webp",
+        "EXT_mesh_gpu_instancing", "KHR_lights_punctual", "KHR_materials_variants");
+
+    private final boolean enabled;
+    private final int maxInputBytes;
+    private final boolean pruneEnabled;
+    private final boolean dedupeEnabled;
+    private final boolean quantizeEnabled;
+    private final ThreadPoolExecutor workers;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary sizeBefore;
+    private final DistributionSummary sizeAfter;
+    private final Counter optimized;
+    private final Counter unchanged;
+    private final Counter skipped;
+    private final Counter failed;
+
+    public GlbOptimizer(
+        MeterRegistry meterRegistry,
+        @Value("${ai.glb.enabled:true}") boolean enabled,
+        @Value("${ai.glb.max-input-bytes:67108864}") int maxInputBytes,
+        @Value("${ai.glb.passes.prune:true}") boolean pruneEnabled,
+        @Value("${ai.glb.passes.dedupe:true}") boolean dedupeEnabled,
+        @Value("${ai.glb.passes.quantize:false}") boolean quantizeEnabled,
+        @Value("${ai.glb.workers:2}") int workerCount,
+        @Value("${ai.glb.queue-capacity:4}") int queueCapacity) {
+        this.enabled = enabled;
+        this.maxInputBytes = Math.min(maxInputBytes, Integer.MAX_VALUE - 8);
+        this.pruneEnabled = pruneEnabled;
+        this.dedupeEnabled = dedupeEnabled;
+        this.quantizeEnabled = quantizeEnabled;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+            workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ai-glb-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        this.meterRegistry = meterRegistry;
+        this.sizeBefore = DistributionSummary.builder("ai.glb.size-bytes").tag("stage", "before").register(meterRegistry);
+        this.sizeAfter = DistributionSummary.builder("ai.glb.size-bytes").tag("stage", "after").register(meterRegistry);
+        this.optimized = meterRegistry.counter("ai.glb.optimized", "result", "optimized");
+        this.unchanged = meterRegistry.counter("ai.glb.optimized", "result", "unchanged");
+        this.skipped = meterRegistry.counter("ai.glb.optimized", "result", "skipped");
+        this.failed = meterRegistry.counter("ai.glb.optimized", "result", "failed");
+        Gauge.builder("ai.glb.queued", workers, w -> w.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 최적화 결과에 영향을 주는 설정 (모델 캐시 키에 포함)
+    public String settingsVersion() {
+        return "glb:" + enabled + "," + maxInputBytes + "," + pruneEnabled + "," + dedupeEnabled + "," + quantizeEnabled;
+    }
+
+    // 이보다 큰 모델은 메모리에 올리지 않고 그대로 전달
+    public int maxInputBytes() {
+        return maxInputBytes;
+    }
+
+    /**
+     * 모델을 최적화합니다. (더 작아지지 않거나 처리할 수 없으면 입력을 그대로 반환)
+     * 전용 풀에서 실행하며, 대기열이 가득 차면 TooManyRequestsException을 던집니다.
+     */
+    public byte[] optimize(byte[] model) {
+        Future<byte[]> task;
+        try {
+            task = workers.submit(() -> optimizeNow(model));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("모델 후처리 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // optimizeNow는 실패 시 원본을 반환하므로 여기에는 Error 등만 도달
+            failed.increment();
+            System.err.println("GLB 최적화 실패: " + e.getCause());
+            return model;
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("모델 후처리 중단");
+        }
+    }
+
+    private byte[] optimizeNow(byte[] model) {
+        Glb glb;
+        try {
+            glb = Glb.parse(model);
+        } catch (IOException | RuntimeException e) {
+            skipped.increment();
+            return model;
+        }
+        if (!isSupported(glb.json())) {
+            skipped.increment();
+            return model;
+        }
+
+        sizeBefore.record(model.length);
+        try {
+            long size = model.length;
+            if (pruneEnabled) {
+                size = runPass("prune", glb, size, () -> compact(glb));
+            }
+            if (dedupeEnabled) {
+                size = runPass("dedupe", glb, size, () -> {
+                    dedupe(glb);
+                    compact(glb);
+                });
+            }
+            if (quantizeEnabled) {
+                runPass("quantize", glb, size, () -> {
+                    quantize(glb);
+                    compact(glb);
+                });
+            }
+
+            byte[] result = glb.write();
+            if (result.length >= model.length) {
+                unchanged.increment();
+                sizeAfter.record(model.length);
+                return model;
+            }
+            optimized.increment();
+            sizeAfter.record(result.length);
+            return result;
+        } catch (Exception e) {
+            failed.increment();
+            sizeAfter.record(model.length);
+            System.err.println("GLB 최적화 실패: " + e.getMessage());
+            return model;
+        }
+    }
+
+    private interface Pass {
+        void run() throws IOException;
+    }
+
+    // 단계를 실행하고 줄어든 크기를 기록 (모델 전체를 다시 쓰지 않고 JSON + BIN 길이로 계산)
+    private long runPass(String name, Glb glb, long before, Pass pass) throws IOException {
+        pass.run();
+        long after = glb.byteLength();
+        DistributionSummary.builder("ai.glb.pass.saved-bytes").tag("pass", name).register(meterRegistry)
+            .record(Math.max(0, before - after));
+        return after;
+    }
+
+    // 단일 내장 버퍼(BIN 청크)이고 지원하는 확장만 쓰는 파일인지 확인
+    private static boolean isSupported(ObjectNode json) {
+        JsonNode buffers = json.get("buffers");
+        if (buffers != null && (buffers.size() > 1 || (buffers.size() == 1 && buffers.get(0).has("uri")))) {
+            return false;
+        }
+        JsonNode used = json.get("extensionsUsed");
+        if (used != null) {
+            for (JsonNode extension : used) {
+                String name = extension.asText();
+                if (!name.startsWith("KHR_materials_") && !SUPPORTED_EXTENSIONS.contains(name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // --- prune: 참조되지 않는 accessor/bufferView 제거 + BIN 재배치 ---
+
+    private static void compact(Glb glb) throws IOException {
+        ObjectNode json = glb.json();
+
+        ArrayNode accessors = array(json, "accessors");
+        if (accessors != null) {
+            boolean[] used = new boolean[accessors.size()];
+            remapAccessors(json, i -> {
+                used[i] = true;
+                return i;
+            });
+            int[] newIndex = new int[used.length];
+            ArrayNode kept = json.arrayNode();
+            for (int i = 0; i < used.length; i++) {
+                newIndex[i] = used[i] ? kept.size() : -1;
+                if (used[i]) {
+                    kept.add(accessors.get(i));
+                }
+            }
+            remapAccessors(json, i -> newIndex[i]);
+            replaceArray(json, "accessors", kept);
+        }
+
+        ArrayNode views = array(json, "bufferViews");
+        if (views != null) {
+            boolean[] used = new boolean[views.size()];
+            remapBufferViews(json, i -> {
+                used[i] = true;
+                return i;
+            });
+
+            byte[] bin = glb.bin();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bin.length);
+            int[] newIndex = new int[used.length];
+            ArrayNode kept = json.arrayNode();
+            for (int i = 0; i < used.length; i++) {
+                if (!used[i]) {
+                    newIndex[i] = -1;
+                    continue;
+                }
+                ObjectNode view = (ObjectNode) views.get(i);
+                int offset = view.path("byteOffset").asInt(0);
+                int length = view.path("byteLength").asInt();
+                // 정점 속성은 4바이트 정렬 필요
+                while (out.size() % 4 != 0) {
+                    out.write(0);
+                }
+                view.put("byteOffset", out.size());
+                out.write(bin, offset, length);
+                newIndex[i] = kept.size();
+                kept.add(view);
+            }
+            remapBufferViews(json, i -> newIndex[i]);
+            replaceArray(json, "bufferViews", kept);
+
+            byte[] compacted = out.toByteArray();
+            glb.setBin(compacted);
+            if (compacted.length == 0) {
+                json.remove("buffers");
+            } else {
+                ((ObjectNode) json.get("buffers").get(0)).put("byteLength", compacted.length);
+            }
+        }
+    }
+
+    // --- dedupe: 같은 내용의 bufferView / 같은 정의의 accessor 합치기 ---
+
+    private record ViewKey(int byteStride, int target, ByteBuffer content) {}
+
+    private static void dedupe(Glb glb) {
+        ObjectNode json = glb.json();
+
+        ArrayNode views = array(json, "bufferViews");
+        if (views != null) {
+            Map<ViewKey, Integer> seen = new HashMap<>();
+            int[] canonical = new int[views.size()];
+            for (int i = 0; i < views.size(); i++) {
+                JsonNode view = views.get(i);
+                ViewKey key = new ViewKey(
+                    view.path("byteStride").asInt(0),
+                    view.path("target").asInt(0),
+                    ByteBuffer.wrap(glb.bin(), view.path("byteOffset").asInt(0), view.path("byteLength").asInt()).slice());
+                Integer first = seen.putIfAbsent(key, i);
+                canonical[i] = first == null ? i : first;
+            }
+            remapBufferViews(json, i -> canonical[i]);
+        }
+
+        ArrayNode accessors = array(json, "accessors");
+        if (accessors != null) {
+            Map<JsonNode, Integer> seen = new HashMap<>();
+            int[] canonical = new int[accessors.size()];
+            for (int i = 0; i < accessors.size(); i++) {
+                ObjectNode key = accessors.get(i).deepCopy();
+                key.remove("name");
+                Integer first = seen.putIfAbsent(key, i);
+                canonical[i] = first == null ? i : first;
+            }
+            remapAccessors(json, i -> canonical[i]);
+        }
+    }
+
+    // --- quantize: 정점 속성 정밀도 낮추기 ---
+
+    private static void quantize(Glb glb) throws IOException {
+        ObjectNode json = glb.json();
+        ArrayNode accessors = array(json, "accessors");
+        ArrayNode views = array(json, "bufferViews");
+        if (accessors == null || views == null) {
+            return;
+        }
+
+        // 정점 속성으로만 쓰이고 의미(semantic)가 하나인 accessor만 변환
+        int[] references = new int[accessors.size()];
+        remapAccessors(json, i -> {
+            references[i]++;
+            return i;
+        });
+        Map<Integer, String> semantics = new HashMap<>();
+        Map<Integer, Integer> attributeReferences = new HashMap<>();
+        forEach(json.get("meshes"), mesh -> forEach(mesh.get("primitives"), primitive -> {
+            JsonNode attributes = primitive.get("attributes");
+            if (attributes != null) {
+                for (Map.Entry<String, JsonNode> entry : attributes.properties()) {
+                    int index = entry.getValue().asInt();
+                    semantics.merge(index, entry.getKey(), (a, b) -> a.equals(b) ? a : "");
+                    attributeReferences.merge(index, 1, Integer::sum);
+                }
+            }
+        }));
+
+        ByteArrayOutputStream bin = new ByteArrayOutputStream();
+        bin.write(glb.bin());
+        boolean meshQuantization = false;
+
+        for (Map.Entry<Integer, String> entry : semantics.entrySet()) {
+            int index = entry.getKey();
+            String semantic = entry.getValue();
+            ObjectNode accessor = (ObjectNode) accessors.get(index);
+            if (references[index] != attributeReferences.get(index)
+                || accessor.path("componentType").asInt() != FLOAT
+                || accessor.has("sparse") || !accessor.has("bufferView")) {
+                continue;
+            }
+
+            String type = accessor.path("type").asText();
+            float[] values;
+            byte[] encoded;
+            int byteStride;
+            int componentType;
+            if (semantic.startsWith("TEXCOORD_") && type.equals("VEC2")) {
+                values = readFloats(glb.bin(), views, accessor, 2);
+                if (!inRange(values, 0f, 1f)) {
+                    continue;
+                }
+                encoded = toUnsignedShorts(values);
+                byteStride = 0;
+                componentType = UNSIGNED_SHORT;
+            } else if ((semantic.equals("NORMAL") && type.equals("VEC3")) || (semantic.equals("TANGENT") && type.equals("VEC4"))) {
+                int components = type.equals("VEC3") ? 3 : 4;
+                values = readFloats(glb.bin(), views, accessor, components);
+                if (!inRange(values, -1f, 1f)) {
+                    continue;
+                }
+                // 요소마다 4바이트 정렬 (VEC3는 1바이트 패딩)
+                encoded = toSignedBytes(values, components, 4);
+                byteStride = 4;
+                componentType = BYTE;
+                meshQuantization = true;
+            } else {
+                continue;
+            }
+
+            while (bin.size() % 4 != 0) {
+                bin.write(0);
+            }
+            ObjectNode view = json.objectNode();
+            view.put("buffer", 0);
+            view.put("byteOffset", bin.size());
+            view.put("byteLength", encoded.length);
+            if (byteStride > 0) {
+                view.put("byteStride", byteStride);
+            }
+            view.put("target", ARRAY_BUFFER);
+            bin.write(encoded);
+            views.add(view);
+
+            accessor.put("bufferView", views.size() - 1);
+            accessor.remove("byteOffset");
+            accessor.put("componentType", componentType);
+            accessor.put("normalized", true);
+            // min/max는 POSITION에만 필수 (변환 후 값과 맞지 않으므로 제거)
+            accessor.remove("min");
+            accessor.remove("max");
+        }
+
+        byte[] quantized = bin.toByteArray();
+        glb.setBin(quantized);
+        if (json.get("buffers") == null) {
+            json.putArray("buffers").addObject();
+        }
+        ((ObjectNode) json.get("buffers").get(0)).put("byteLength", quantized.length);
+
+        if (meshQuantization) {
+            addExtension(json, "extensionsUsed", MESH_QUANTIZATION);
+            addExtension(json, "extensionsRequired", MESH_QUANTIZATION);
+        }
+    }
+
+    private static float[] readFloats(byte[] bin, ArrayNode views, ObjectNode accessor, int components) {
+        JsonNode view = views.get(accessor.get("bufferView").asInt());
+        int count = accessor.path("count").asInt();
+        int stride = view.path("byteStride").asInt(components * 4);
+        int base = view.path("byteOffset").asInt(0) + accessor.path("byteOffset").asInt(0);
+
+        ByteBuffer buffer = ByteBuffer.wrap(bin).order(ByteOrder.LITTLE_ENDIAN);
+        float[] values = new float[count * components];
+        for (int e = 0; e < count; e++) {
+            for (int c = 0; c < components; c++) {
+                values[e * components + c] = buffer.getFloat(base + e * stride + c * 4);
+            }
+        }
+        return values;
+    }
+
+    private static boolean inRange(float[] values, float min, float max) {
+        for (float value : values) {
+            if (!(value >= min && value <= max)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] toUnsignedShorts(float[] values) {
+        ByteBuffer out = ByteBuffer.allocate(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (float value : values) {
+            out.putShort((short) Math.round(value * 65535f));
+        }
+        return out.array();
+    }
+
+    private static byte[] toSignedBytes(float[] values, int components, int elementSize) {
+        int count = values.length / components;
+        byte[] out = new byte[count * elementSize];
+        for (int e = 0; e < count; e++) {
+            for (int c = 0; c < components; c++) {
+                out[e * elementSize + c] = (byte) Math.round(values[e * components + c] * 127f);
+            }
+        }
+        return out;
+    }
+
+    // --- 참조 위치 순회 ---
+
+    // accessor를 가리키는 모든 위치의 인덱스를 remap 결과로 교체
+    private static void remapAccessors(ObjectNode json, IntUnaryOperator remap) {
+        forEach(json.get("meshes"), mesh -> forEach(mesh.get("primitives"), primitive -> {
+            remapValues(primitive.get("attributes"), remap);
+            remapField(primitive, "indices", remap);
+            forEach(primitive.get("targets"), target -> remapValues(target, remap));
+        }));
+        forEach(json.get("skins"), skin -> remapField(skin, "inverseBindMatrices", remap));
+        forEach(json.get("animations"), animation -> forEach(animation.get("samplers"), sampler -> {
+            remapField(sampler, "input", remap);
+            remapField(sampler, "output", remap);
+        }));
+        forEach(json.get("nodes"), node ->
+            remapValues(node.path("extensions").path("EXT_mesh_gpu_instancing").get("attributes"), remap));
+    }
+
+    // bufferView를 가리키는 모든 위치의 인덱스를 remap 결과로 교체
+    private static void remapBufferViews(ObjectNode json, IntUnaryOperator remap) {
+        forEach(json.get("accessors"), accessor -> {
+            remapField(accessor, "bufferView", remap);
+            JsonNode sparse = accessor.get("sparse");
+            if (sparse != null) {
+                remapField(sparse.get("indices"), "bufferView", remap);
+                remapField(sparse.get("values"), "bufferView", remap);
+            }
+        });
+        forEach(json.get("images"), image -> remapField(image, "bufferView", remap));
+    }
+
+    private static void remapField(JsonNode node, String field, IntUnaryOperator remap) {
+        if (node instanceof ObjectNode object && object.path(field).isInt()) {
+            object.put(field, remap.applyAsInt(object.get(field).intValue()));
+        }
+    }
+
+    // 객체의 모든 정수 값 교체 (attributes, morph target 등)
+    private static void remapValues(JsonNode node, IntUnaryOperator remap) {
+        if (node instanceof ObjectNode object) {
+            List<String> names = object.properties().stream().map(Map.Entry::getKey).toList();
+            for (String name : names) {
+                remapField(object, name, remap);
+            }
+        }
+    }
+
+    private static void forEach(JsonNode node, Consumer<JsonNode> action) {
+        if (node instanceof ArrayNode array) {
+            array.forEach(action);
+        }
+    }
+
+    private static ArrayNode array(ObjectNode json, String name) {
+        return json.get(name) instanceof ArrayNode array ? array : null;
+    }
+
+    // glTF는 빈 배열을 허용하지 않으므로 비면 속성 자체를 제거
+    private static void replaceArray(ObjectNode json, String name, ArrayNode values) {
+        if (values.isEmpty()) {
+            json.remove(name);
+        } else {
+            json.set(name, values);
+        }
+    }
+
+    private static void addExtension(ObjectNode json, String listName, String extension) {
+        ArrayNode list = array(json, listName);
+        if (list == null) {
+            list = json.putArray(listName);
+        }
+        for (JsonNode existing : list) {
+            if (existing.asText().equals(extension)) {
+                return;
+            }
+        }
+        list.add(extension);
+    }
+}
@@ -0,0 +1,250 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.exception.TooManyRequestsException;
+import com.opensource.kemini_backend.utility.ExifOrientation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 서버로 보내기 전 업로드 이미지를 정규화합니다.
+ *
+ * - 디코딩 → 긴 변을 ai.image.max-edge 이하로 축소 → EXIF 방향을 픽셀에 반영 → 메타데이터(EXIF) 없이 다시 인코딩
+ *   (불투명 이미지는 JPEG(ai.image.jpeg-quality), 투명도가 있으면 PNG)
+ * - 큰 원본은 디코딩 단계에서 서브샘플링하여 원본 해상도 전체를 메모리에 올리지 않음
+ * - 이미 작고 회전이 필요 없는 이미지(ai.image.passthrough-below-bytes 이하)나 해석할 수 없는 형식은 그대로 전달
+ * - CPU 작업이므로 코어 수 크기의 전용 풀(대기열 ai.image.queue-capacity)에서 실행 → 요청 스레드를 잠식하지 않음
+ *
+ * 지표: ai.image.processing-time (히스토그램), ai.image.bytes-saved, ai.image.normalized{result}, ai.image.queued
+ */
+@Component
+public class ImageNormalizer {
+
+    // EXIF(APP1)는 JPEG 앞부분에 있으므로 이 범위만 읽어 방향 값을 찾음
+    private static final int EXIF_SCAN_BYTES = 128 * 1024;
+
+    // 정규화 결과 (그대로 전달하는 경우 원본)
+    public record NormalizedImage(InputStreamSource source, String fileName, String contentType, long size) {}
+
+    private final boolean enabled;
+    private final int maxEdge;
+    private final float jpegQuality;
+    private final long passthroughBelowBytes;
+    private final ThreadPoolExecutor workers;
+
+    private final Timer processingTime;
+    private final Counter bytesSaved;
+    private final Counter resized;
+    private final Counter reencoded;
+    private final Counter passedThrough;
+    private final Counter failed;
+
+    public ImageNormalizer(
+        MeterRegistry meterRegistry,
+        @Value("${ai.image.enabled:true}") boolean enabled,
+        @Value("${ai.image.max-edge:1024}") int maxEdge,
+        @Value("${ai.image.jpeg-quality:0.9}") float jpegQuality,
+        @Value("${ai.image.passthrough-below-bytes:524288}") long passthroughBelowBytes,
+        @Value("${ai.image.workers:0}") int workerCount,
+        @Value("${ai.image.queue-capacity:32}") int queueCapacity) {
+        this.enabled = enabled;
+        this.maxEdge = maxEdge;
+        this.jpegQuality = jpegQuality;
+        this.passthroughBelowBytes = passthroughBelowBytes;
+
+        // 0이면 CPU 코어 수
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ai-image-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        this.processingTime = Timer.builder("ai.image.processing-time")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.bytesSaved = meterRegistry.counter("ai.image.bytes-saved");
+        this.resized = meterRegistry.counter("ai.image.normalized", "result", "resized");
+        this.reencoded = meterRegistry.counter("ai.image.normalized", "result", "reencoded");
+        this.passedThrough = meterRegistry.counter("ai.image.normalized", "result", "passthrough");
+        this.failed = meterRegistry.counter("ai.image.normalized", "result", "failed");
+        Gauge.builder("ai.image.queued", workers, w -> w.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // 정규화 결과에 영향을 주는 설정 (모델 캐시 키에 포함)
+    public String settingsVersion() {
+        return "image:" + enabled + "," + maxEdge + "," + jpegQuality + "," + passthroughBelowBytes;
+    }
+
+    /**
+     * 이미지를 정규화합니다. (처리할 수 없으면 원본을 그대로 반환)
+     */
+    public NormalizedImage normalize(InputStreamSource image, String fileName, String contentType, long size) {
+        NormalizedImage original = new NormalizedImage(image, fileName, contentType, size);
+        if (!enabled) {
+            return original;
+        }
+
+        Future<NormalizedImage> task;
+        try {
+            task = workers.submit(() -> processingTime.recordCallable(() -> process(original)));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("이미지 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+
+        try {
+            NormalizedImage normalized = task.get();
+            if (normalized == null) {
+                passedThrough.increment();
+                return original;
+            }
+            bytesSaved.increment(Math.max(0, size - normalized.size()));
+            return normalized;
+        } catch (ExecutionException e) {
+            // 지원하지 않는 형식/손상된 이미지 → AI 서버가 판단하도록 원본 전달
+            failed.increment();
+            System.err.println("이미지 정규화 실패 (" + fileName + "): " + e.getCause());
+            return original;
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("이미지 처리 중단");
+        }
+    }
+
+    // 정규화할 필요가 없으면 null
+    private NormalizedImage process(NormalizedImage original) throws IOException {
+        byte[] head;
+        try (InputStream in = original.source().getInputStream()) {
+            head = in.readNBytes(EXIF_SCAN_BYTES);
+        }
+        int orientation = ExifOrientation.read(head);
+
+        try (InputStream in = original.source().getInputStream();
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // 메타데이터는 읽지 않음 (EXIF 제거)
+                reader.setInput(imageIn, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                boolean resize = longest > maxEdge;
+                if (!resize && orientation == 1 && original.size() <= passthroughBelowBytes) {
+                    return null;
+                }
+
+                // 목표 크기의 2배 이상은 유지하도록 서브샘플링하여 디코딩 (이후 보간 축소)
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (maxEdge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                BufferedImage output = ExifOrientation.apply(scale(decoded), orientation);
+                boolean alpha = output.getColorModel().hasAlpha();
+                byte[] encoded = alpha ? encode(output, "png", null) : encode(output, "jpeg", jpegQuality);
+
+                // 축소/회전이 필요 없었는데 더 커졌으면 원본 사용
+                if (!resize && orientation == 1 && encoded.length >= original.size()) {
+                    return null;
+                }
+                (resize ? resized : reencoded).increment();
+                return new NormalizedImage(
+                    new ByteArrayResource(encoded),
+                    renameExtension(original.fileName(), alpha ? ".png" : ".jpg"),
+                    alpha ? "image/png" : "image/jpeg",
+                    encoded.length);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변이 maxEdge가 되도록 쌍선형 보간 축소 (RGB/ARGB로 변환 포함)
+    private BufferedImage scale(BufferedImage src) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * ratio));
+        int th = Math.max(1, (int) Math.round(h * ratio));
+
+        boolean alpha = src.getColorModel().hasAlpha();
+        BufferedImage scaled = new BufferedImage(tw, th, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, tw, th, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encode(BufferedImage image, String format, Float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String renameExtension(String fileName, String extension) {
+        if (fileName == null || fileName.isBlank()) {
+            return "image" + extension;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + extension;
+    }
+}
@@ -0,0 +1,375 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.dto.ModelJobDto;
+import com.opensource.kemini_backend.exception.TooManyRequestsException;
+import com.opensource.kemini_backend.exception.UpstreamUnavailableException;
+import com.opensource.kemini_backend.model.ModelGenerationJob;
+import com.opensource.kemini_backend.model.ModelGenerationJob.Status;
+import com.opensource.kemini_backend.repository.ModelGenerationJobRepository;
+import com.opensource.kemini_backend.utility.ContentHash;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 3D 모델 생성 비동기 작업
+ *
+ * 1. submit: 업로드 이미지를 작업 디렉터리에 저장하고 작업(QUEUED)을 등록한 뒤 바로 작업 ID 반환
+ * 2. 고정 크기 워커 풀(ai.jobs.workers)이 AI 서버를 호출하여 결과 .glb를 파일로 저장 (대기열은 ai.jobs.queue-capacity로 제한)
+ * 3. 클라이언트는 상태 조회(폴링) 또는 SSE로 진행 상황을 받고, 완료되면 결과 파일을 내려받음
+ *
+ * - AI 서버가 바쁘거나(429) 일시적으로 응답하지 않으면 입력 파일을 남겨 두고 대기 후 다시 실행
+ *   (ai.jobs.max-attempts회까지, 대기 시간은 ai.jobs.retry-backoff-ms부터 두 배씩 늘려 ai.jobs.max-retry-backoff-ms까지)
+ * - 서버 재시작 시 QUEUED/RUNNING 작업은 입력 파일이 남아 있으면 다시 실행
+ *   (그래서 ai.jobs.storage-dir은 재시작/재배포 후에도 남는 영구 디렉터리로 반드시 지정해야 함)
+ * - 완료된 작업은 ai.jobs.retention-ms 동안 보관 후 파일과 함께 삭제
+ *
+ * 지표: ai.jobs.active, ai.jobs.queued, ai.jobs.retries
+ */
+@Service
+public class ModelGenerationJobService {
+
+    private static final List<Status> UNFINISHED = List.of(Status.QUEUED, Status.RUNNING);
+    private static final List<Status> FINISHED = List.of(Status.SUCCEEDED, Status.FAILED);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ModelGenerationJobRepository jobRepository;
+    private final AIService aiService;
+    private final Path storageDir;
+    private final long sseTimeoutMillis;
+    private final long retentionMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final ThreadPoolExecutor workers;
+    // 재시도 대기 중인 작업을 시간이 되면 워커 풀에 다시 넣음
+    private final ScheduledExecutorService retryScheduler;
+    private final Counter retries;
+
+    // 작업 ID → 상태 변경을 기다리는 SSE 연결들
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public ModelGenerationJobService(
+        ModelGenerationJobRepository jobRepository,
+        AIService aiService,
+        MeterRegistry meterRegistry,
+        @Value("${ai.jobs.storage-dir}") String storageDir,
+        @Value("${ai.jobs.workers:4}") int workerCount,
+        @Value("${ai.jobs.queue-capacity:100}") int queueCapacity,
+        @Value("${ai.jobs.sse-timeout-ms:600000}") long sseTimeoutMillis,
+        @Value("${ai.jobs.retention-ms:86400000}") long retentionMillis,
+        @Value("${ai.jobs.max-attempts:5}") int maxAttempts,
+        @Value("${ai.jobs.retry-backoff-ms:10000}") long retryBackoffMillis,
+        @Value("${ai.jobs.max-retry-backoff-ms:600000}") long maxRetryBackoffMillis) throws IOException {
+        this.jobRepository = jobRepository;
+        this.aiService = aiService;
+        this.storageDir = Files.createDirectories(Path.of(storageDir));
+        this.sseTimeoutMillis = sseTimeoutMillis;
+        this.retentionMillis = retentionMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+            workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ai-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-job-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.retries = meterRegistry.counter("ai.jobs.retries");
+        Gauge.builder("ai.jobs.active", workers, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("ai.jobs.queued", workers, w -> w.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * 작업을 등록하고 바로 반환합니다.
+     */
+    public ModelJobDto submit(Long userId, MultipartFile imageFile) {
+        if (userId == null) {
+            throw new RuntimeException("사용자를 찾을 수 없습니다.");
+        }
+        String jobId = UUID.randomUUID().toString();
+        Path input = storageDir.resolve(jobId + ".input");
+
+        // 작업 디렉터리로 복사하면서 모델 캐시 키(SHA-256)를 함께 계산
+        String imageHash;
+        try (InputStream in = imageFile.getInputStream(); OutputStream out = Files.newOutputStream(input)) {
+            imageHash = ContentHash.copy(in, out);
+        } catch (IOException e) {
+            deleteQuietly(input);
+            throw new RuntimeException("업로드 파일 저장 실패: " + e.getMessage());
+        }
+
+        ModelGenerationJob job = jobRepository.save(new ModelGenerationJob(
+            jobId, userId, imageFile.getOriginalFilename(), imageFile.getContentType(), imageHash, input.toString()));
+
+        try {
+            workers.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            jobRepository.delete(job);
+            deleteQuietly(input);
+            throw new TooManyRequestsException("AI 모델 생성 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+        return ModelJobDto.from(job);
+    }
+
+    public ModelJobDto getJob(Long userId, String jobId) {
+        return ModelJobDto.from(findOwnedJob(userId, jobId));
+    }
+
+    /**
+     * 완료된 작업의 결과 파일을 반환합니다.
+     */
+    public Path getResultFile(Long userId, String jobId) {
+        ModelGenerationJob job = findOwnedJob(userId, jobId);
+        if (job.getStatus() != Status.SUCCEEDED) {
+            throw new RuntimeException("아직 완료되지 않은 작업입니다. (상태: " + job.getStatus() + ")");
+        }
+        Path result = Path.of(job.getResultPath());
+        if (!Files.exists(result)) {
+            throw new RuntimeException("결과 파일이 만료되었습니다.");
+        }
+        return result;
+    }
+
+    /**
+     * 작업 상태를 SSE로 구독합니다. (현재 상태를 바로 보내고, 끝나면 연결 종료)
+     */
+    public SseEmitter subscribe(Long userId, String jobId) {
+        findOwnedJob(userId, jobId);
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        // 추가/제거를 같은 항목 잠금 안에서 해야, 비워져 제거되는 목록에 새 연결이 들어가 버려지지 않음
+        subscribers.compute(jobId, (k, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        // 마지막 연결이 끊기면 목록도 제거 (끝난 작업이 남기는 항목이 쌓이지 않도록)
+        Runnable unsubscribe = () -> subscribers.computeIfPresent(jobId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // 등록한 뒤에 다시 읽어야 그 사이에 끝난 작업의 마지막 이벤트를 놓치지 않음
+        jobRepository.findById(jobId).ifPresent(job -> send(emitter, job));
+        return emitter;
+    }
+
+    // 서버 재시작 시 중단된 작업 다시 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (ModelGenerationJob job : jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED)) {
+            if (job.getInputPath() != null && Files.exists(Path.of(job.getInputPath()))) {
+                job.setStatus(Status.QUEUED);
+                job.setUpdatedAt(Instant.now());
+                jobRepository.save(job);
+                try {
+                    workers.execute(() -> run(job.getId()));
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    // 아래에서 실패 처리
+                }
+            }
+            fail(job, "서버 재시작으로 작업이 중단되었습니다.");
+            jobRepository.save(job);
+        }
+    }
+
+    // 보관 기간이 지난 작업과 결과 파일 정리
+    @Scheduled(fixedDelayString = "${ai.jobs.cleanup-interval-ms:3600000}")
+    public void cleanupExpired() {
+        Instant before = Instant.now().minusMillis(retentionMillis);
+        for (ModelGenerationJob job : jobRepository.findByStatusInAndUpdatedAtBefore(FINISHED, before)) {
+            if (job.getResultPath() != null) {
+                deleteQuietly(Path.of(job.getResultPath()));
+            }
+            jobRepository.delete(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 대기/재시도 대기 중인 작업은 DB에 QUEUED로 남아 다음 시작 시 다시 실행됨
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(String jobId) {
+        ModelGenerationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()) {
+            return;
+        }
+        job.setStatus(Status.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        job.setUpdatedAt(Instant.now());
+        job = jobRepository.save(job);
+        publish(job);
+
+        Path input = Path.of(job.getInputPath());
+        Path partial = storageDir.resolve(jobId + ".glb.part");
+        Path result = storageDir.resolve(jobId + ".glb");
+
+        long retryDelayMillis = -1;
+        try {
+            String imageHash = job.getImageHash();
+            if (imageHash == null) {
+                try (InputStream in = Files.newInputStream(input)) {
+                    imageHash = ContentHash.of(in);
+                }
+            }
+
+            // AI 서버 응답(또는 캐시된 모델)을 메모리에 모으지 않고 파일로 바로 저장
+            try (AIService.ModelStream model = aiService.generate3DModel(
+                    imageHash, new FileSystemResource(input), job.getOriginalFileName(), job.getContentType(), Files.size(input));
+                 OutputStream out = Files.newOutputStream(partial)) {
+                model.transferTo(out);
+            }
+            Files.move(partial, result, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setStatus(Status.SUCCEEDED);
+            job.setResultPath(result.toString());
+            job.setResultSize(Files.size(result));
+            job.setErrorMessage(null);
+            job.setCompletedAt(Instant.now());
+        } catch (Exception e) {
+            System.err.println("AI 모델 생성 작업 실패 (" + jobId + ", " + job.getAttempts() + "회): " + e.getMessage());
+            deleteQuietly(partial);
+            retryDelayMillis = retryDelay(job, e);
+            if (retryDelayMillis >= 0) {
+                // 입력 파일은 남겨 두고 대기열로 되돌림
+                job.setStatus(Status.QUEUED);
+            } else {
+                fail(job, e.getMessage());
+            }
+        } finally {
+            if (job.isFinished()) {
+                deleteQuietly(input);
+                job.setInputPath(null);
+            }
+            job.setUpdatedAt(Instant.now());
+            job = jobRepository.save(job);
+        }
+        publish(job);
+        if (retryDelayMillis >= 0) {
+            retries.increment();
+            scheduleRun(jobId, retryDelayMillis);
+        }
+    }
+
+    /**
+     * 다시 시도할 오류면 대기 시간(ms), 아니면 -1
+     * 429는 Retry-After와 백오프 중 긴 쪽을 기다림
+     */
+    private long retryDelay(ModelGenerationJob job, Exception e) {
+        boolean transientError = e instanceof TooManyRequestsException || e instanceof UpstreamUnavailableException;
+        if (!transientError || job.getAttempts() >= maxAttempts) {
+            return -1;
+        }
+        long backoff = Math.min(retryBackoffMillis << Math.min(job.getAttempts() - 1, 20), maxRetryBackoffMillis);
+        if (e instanceof TooManyRequestsException tooMany) {
+            backoff = Math.max(backoff, TimeUnit.SECONDS.toMillis(tooMany.getRetryAfterSeconds()));
+        }
+        return backoff;
+    }
+
+    private void scheduleRun(String jobId, long delayMillis) {
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    workers.execute(() -> run(jobId));
+                } catch (RejectedExecutionException e) {
+                    // 대기열이 가득 찼으면 조금 뒤에 다시
+                    scheduleRun(jobId, retryBackoffMillis);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중: DB에 QUEUED로 남아 다음 시작 시 다시 실행됨
+        }
+    }
+
+    private static void fail(ModelGenerationJob job, String message) {
+        job.setStatus(Status.FAILED);
+        job.setErrorMessage(message != null && message.length() > MAX_ERROR_LENGTH
+            ? message.substring(0, MAX_ERROR_LENGTH)
+            : message);
+        job.setCompletedAt(Instant.now());
+        job.setUpdatedAt(Instant.now());
+    }
+
+    // 구독 중인 SSE 연결에 상태 전송 (끝난 작업이면 연결 종료)
+    private void publish(ModelGenerationJob job) {
+        List<SseEmitter> emitters = job.isFinished() ? subscribers.remove(job.getId()) : subscribers.get(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, job));
+        }
+    }
+
+    private static void send(SseEmitter emitter, ModelGenerationJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(ModelJobDto.from(job)));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private ModelGenerationJob findOwnedJob(Long userId, String jobId) {
+        return jobRepository.findById(jobId)
+            .filter(job -> job.getUserId().equals(userId))
+            .orElseThrow(() -> new RuntimeException("작업을 찾을 수 없습니다."));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("작업 파일 삭제 실패: " + path + ", Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.opensource.kemini_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * 생성된 3D 모델(.glb) 캐시
+ * (키: 업로드 이미지의 SHA-256과 파이프라인 설정 버전을 합친 SHA-256, AIService에서 계산)
+ *
+ * - 1차: 로컬 디스크 ({ai.cache.dir}/{hash}.glb), 전체 크기 ai.cache.max-bytes 초과 시 가장 오래 사용하지 않은 파일부터 삭제(LRU)
+ *   (파일 하나가 ai.cache.max-bytes보다 크면 로컬에는 보관하지 않음)
+ * - 2차: S3 ({aws.s3.bucket}/model-cache/{hash}.glb), 로컬에 없으면 내려받아 로컬에도 저장
+ * - 새로 생성된 모델은 로컬에 저장한 뒤 S3에 비동기로 업로드
+ * - commit은 파일을 열어 둔 SharedModel을 돌려주므로, 기다리던 요청들은 캐시에서 바로 밀려나도 결과를 받을 수 있음
+ *
+ * 지표: ai.model-cache.lookups{result=local-hit|s3-hit|miss}, ai.model-cache.bytes-saved,
+ *       ai.model-cache.evictions, ai.model-cache.evicted-bytes, ai.model-cache.size-bytes, ai.model-cache.entries
+ */
+@Component
+public class ModelResultCache {
+
+    private static final String FILE_SUFFIX = ".glb";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String S3_PREFIX = "model-cache/";
+
+    // 캐시된 모델 (열린 스트림과 크기)
+    public record CachedModel(InputStream body, long size) {}
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final boolean s3Enabled;
+    private final Executor uploadExecutor;
+
+    // 접근 순서(accessOrder)로 정렬된 hash → 파일 크기 (맨 앞이 가장 오래 사용하지 않은 항목)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter localHits;
+    private final Counter s3Hits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+    private final Counter evictions;
+    private final Counter evictedBytes;
+
+    public ModelResultCache(
+        S3Client s3Client,
+        MeterRegistry meterRegistry,
+        @Qualifier("applicationTaskExecutor") Executor uploadExecutor,
+        @Value("${aws.s3.bucket}") String bucketName,
+        @Value("${ai.cache.dir:${java.io.tmpdir}/kemini-model-cache}") String cacheDir,
+        @Value("${ai.cache.max-bytes:5368709120}") long maxBytes,
+        @Value("${ai.cache.s3-enabled:true}") boolean s3Enabled) throws IOException {
+        this.s3Client = s3Client;
+        this.uploadExecutor = uploadExecutor;
+        this.bucketName = bucketName;
+        this.cacheDir = Files.createDirectories(Path.of(cacheDir));
+        this.maxBytes = maxBytes;
+        this.s3Enabled = s3Enabled;
+
+        this.localHits = meterRegistry.counter("ai.model-cache.lookups", "result", "local-hit");
+        this.s3Hits = meterRegistry.counter("ai.model-cache.lookups", "result", "s3-hit");
+        this.misses = meterRegistry.counter("ai.model-cache.lookups", "result", "miss");
+        this.bytesSaved = meterRegistry.counter("ai.model-cache.bytes-saved");
+        this.evictions = meterRegistry.counter("ai.model-cache.evictions");
+        this.evictedBytes = meterRegistry.counter("ai.model-cache.evicted-bytes");
+        Gauge.builder("ai.model-cache.size-bytes", this, c -> c.currentBytes()).register(meterRegistry);
+        Gauge.builder("ai.model-cache.entries", this, c -> c.currentEntries()).register(meterRegistry);
+
+        loadExistingFiles();
+    }
+
+    /**
+     * 캐시된 모델을 엽니다. (로컬 → S3 순서, 없으면 empty)
+     */
+    public Optional<CachedModel> open(String hash) {
+        Optional<CachedModel> local = openLocal(hash);
+        if (local.isPresent()) {
+            localHits.increment();
+            bytesSaved.increment(local.get().size());
+            return local;
+        }
+
+        if (s3Enabled) {
+            Optional<CachedModel> downloaded = downloadFromS3(hash);
+            if (downloaded.isPresent()) {
+                s3Hits.increment();
+                bytesSaved.increment(downloaded.get().size());
+                return downloaded;
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * commit된 모델을 엽니다. (SharedModel을 놓친 요청에서 사용, 조회 지표에는 집계하지 않음)
+     */
+    public Optional<CachedModel> openCommitted(String hash) {
+        return openLocal(hash);
+    }
+
+    /**
+     * 새로 생성되는 모델을 캐시에 기록하는 Writer를 만듭니다.
+     * 끝까지 기록되면 commit, 중간에 끊기면 abort 합니다.
+     */
+    public Writer newWriter(String hash) {
+        return new Writer(hash, cacheDir.resolve(hash + "." + UUID.randomUUID() + TEMP_SUFFIX));
+    }
+
+    public final class Writer {
+        private final String hash;
+        private final Path tempFile;
+        private OutputStream out;
+        private boolean failed;
+        private boolean done;
+
+        private Writer(String hash, Path tempFile) {
+            this.hash = hash;
+            this.tempFile = tempFile;
+        }
+
+        // 캐시 기록 실패(디스크 부족 등)는 응답 전송에 영향을 주지 않도록 무시하고 캐시만 포기
+        public void write(byte[] buffer, int offset, int length) {
+            if (failed || done) {
+                return;
+            }
+            try {
+                if (out == null) {
+                    out = Files.newOutputStream(tempFile);
+                }
+                out.write(buffer, offset, length);
+            } catch (IOException e) {
+                failed = true;
+                System.err.println("모델 캐시 기록 실패 (" + hash + "): " + e.getMessage());
+            }
+        }
+
+        /**
+         * 기록을 마치고 캐시에 등록합니다.
+         * 등록 전에 파일을 열어 두므로, 반환된 SharedModel은 캐시 등록에 실패하거나 곧바로 삭제(LRU)되어도 읽을 수 있습니다.
+         * (기록 자체가 실패했으면 empty)
+         */
+        public Optional<SharedModel> commit() {
+            if (done) {
+                return Optional.empty();
+            }
+            done = true;
+            SharedModel shared = null;
+            try {
+                if (failed || out == null) {
+                    return Optional.empty();
+                }
+                out.close();
+                shared = new SharedModel(FileChannel.open(tempFile, StandardOpenOption.READ));
+                if (shared.size() > maxBytes) {
+                    // 캐시 전체보다 큰 모델은 등록하면 다른 파일을 모두 밀어내고 자신도 삭제되므로 보관하지 않음
+                    // (열어 둔 파일로 이번 요청들에만 전달, 임시 파일은 아래에서 삭제)
+                    return Optional.of(shared);
+                }
+                Path file = localFile(hash);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                register(hash, shared.size());
+                if (s3Enabled) {
+                    uploadExecutor.execute(() -> uploadToS3(hash, file));
+                }
+                return Optional.of(shared);
+            } catch (IOException e) {
+                System.err.println("모델 캐시 저장 실패 (" + hash + "): " + e.getMessage());
+                // 열어 둔 파일이 있으면 캐시에는 없어도 이번 요청들에는 전달
+                return Optional.ofNullable(shared);
+            } finally {
+                deleteQuietly(tempFile);
+            }
+        }
+
+        public void abort() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } catch (IOException ignored) {
+                // 임시 파일은 아래에서 삭제
+            }
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * commit된 파일 하나를 여러 요청이 나눠 읽기 위한 핸들
+     * 파일을 한 번만 열고 요청마다 위치 지정 읽기(pread)로 독립적으로 읽으며,
+     * 만든 쪽(참조 1개)과 open한 스트림이 모두 반환되면 파일을 닫습니다.
+     */
+    public static final class SharedModel {
+        private final FileChannel channel;
+        private final long size;
+        private int references = 1;
+
+        private SharedModel(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        public long size() {
+            return size;
+        }
+
+        // 새 스트림을 엽니다. (이미 모든 참조가 반환되어 닫혔으면 empty)
+        public synchronized Optional<CachedModel> open() {
+            if (references == 0) {
+                return Optional.empty();
+            }
+            references++;
+            return Optional.of(new CachedModel(new SharedModelStream(), size));
+        }
+
+        // 만든 쪽의 참조 반환
+        public synchronized void release() {
+            if (references > 0 && --references == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("모델 파일 닫기 실패: " + e.getMessage());
+                }
+            }
+        }
+
+        private final class SharedModelStream extends InputStream {
+            private long position;
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (closed) {
+                    throw new IOException("닫힌 스트림입니다.");
+                }
+                if (position >= size) {
+                    return -1;
+                }
+                if (length == 0) {
+                    return 0;
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, size - position)), position);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.max(0, Math.min(n, size - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, size - position);
+            }
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    release();
+                }
+            }
+        }
+    }
+
+    // 로컬 파일을 열고 LRU 순서 갱신 (열린 파일은 이후 삭제되어도 끝까지 읽을 수 있음)
+    private synchronized Optional<CachedModel> openLocal(String hash) {
+        Long size = entries.get(hash);
+        if (size == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CachedModel(Files.newInputStream(localFile(hash)), size));
+        } catch (IOException e) {
+            entries.remove(hash);
+            totalBytes -= size;
+            return Optional.empty();
+        }
+    }
+
+    private synchronized void register(String hash, long size) {
+        Long previous = entries.put(hash, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(localFile(eldest.getKey()));
+            evictions.increment();
+            evictedBytes.increment(eldest.getValue());
+        }
+    }
+
+    private Optional<CachedModel> downloadFromS3(String hash) {
+        Path tempFile = cacheDir.resolve(hash + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(S3_PREFIX + hash + FILE_SUFFIX).build(), tempFile);
+            long size = Files.size(tempFile);
+            if (size > maxBytes) {
+                // 로컬 캐시보다 큰 모델은 보관하지 않고 이번 요청에만 전달 (열린 파일은 삭제되어도 끝까지 읽을 수 있음)
+                return Optional.of(new CachedModel(Files.newInputStream(tempFile), size));
+            }
+            Path file = localFile(hash);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            register(hash, size);
+            return openLocal(hash);
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("S3 모델 캐시 조회 실패 (" + hash + "): " + e.getMessage());
+            return Optional.empty();
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private void uploadToS3(String hash, Path file) {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(S3_PREFIX + hash + FILE_SUFFIX)
+                    .contentType("model/gltf-binary")
+                    .build(),
+                RequestBody.fromFile(file));
+        } catch (Exception e) {
+            // 로컬에서 먼저 삭제되었거나 S3 오류 → 다음 생성 때 다시 업로드됨
+            System.err.println("S3 모델 캐시 업로드 실패 (" + hash + "): " + e.getMessage());
+        }
+    }
+
+    // 재시작 시 디스크에 남아 있는 캐시 파일을 오래된 순서로 다시 등록
+    private void loadExistingFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(path);
+                } else if (name.endsWith(FILE_SUFFIX)) {
+                    files.add(path);
+                }
+            }
+        }
+        files.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            register(name.substring(0, name.length() - FILE_SUFFIX.length()), Files.size(file));
+        }
+    }
+
+    private Path localFile(String hash) {
+        return cacheDir.resolve(hash + FILE_SUFFIX);
+    }
+
+    private synchronized long currentBytes() {
+        return totalBytes;
+    }
+
+    private synchronized int currentEntries() {
+        return entries.size();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("모델 캐시 파일 삭제 실패: " + path + ", Error: " + e.getMessage());
+        }
+    }
+}
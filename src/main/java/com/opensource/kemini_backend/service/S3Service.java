@@ -2,18 +2,43 @@ package com.opensource.kemini_backend.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
 
 @Service
 public class S3Service {
 
+    // DeleteObjects 한 번에 보낼 수 있는 최대 키 개수
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    // 멀티파트 업로드 파트 크기 (S3 최소 5MB, 업로드 중 메모리 사용량은 이 버퍼 하나로 고정)
+    private static final int UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+
     private final S3Presigner s3Presigner;
     private final S3Client s3Client;
     private final String bucketName;
@@ -64,6 +89,130 @@ public class S3Service {
                 objectKey
         );
     }
+    /**
+     * 길이를 모르는 스트림을 S3에 업로드합니다. (서버가 직접 만든 파일 저장용)
+     * 파트 크기보다 작으면 PutObject 한 번으로, 크면 멀티파트 업로드로 파트 단위로 나누어 보냅니다.
+     * 실패하면 진행 중이던 멀티파트 업로드를 중단(abort)하므로 S3에 조각이 남지 않습니다.
+     *
+     * @return 업로드한 바이트 수
+     */
+    public long uploadStream(String objectKey, InputStream in, String contentType) {
+        byte[] buffer = new byte[UPLOAD_PART_SIZE];
+        String uploadId = null;
+        try {
+            int filled = readFully(in, buffer);
+            if (filled < buffer.length) {
+                s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+                return filled;
+            }
+
+            uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .build()).uploadId();
+
+            List<CompletedPart> parts = new ArrayList<>();
+            long total = 0;
+            while (filled > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) filled)
+                        .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                total += filled;
+                filled = readFully(in, buffer);
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return total;
+
+        } catch (Exception e) {
+            if (uploadId != null) {
+                abortMultipartUpload(objectKey, uploadId);
+            }
+            throw new RuntimeException("S3 업로드 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * prefix 아래의 모든 객체를 삭제합니다. (회원 탈퇴 데이터 정리용)
+     * ListObjectsV2로 최대 1000개씩 조회하고, 조회한 페이지를 DeleteObjects 한 번으로 삭제합니다.
+     *
+     * @param onPageDeleted 페이지마다 삭제된 객체 수를 전달받는 콜백 (진행 상황 기록용)
+     * @return 삭제한 객체 수
+     * @throws RuntimeException 일부 객체 삭제에 실패한 경우 (다시 호출하면 남은 객체만 삭제됨)
+     */
+    public long deleteAllUnderPrefix(String prefix, LongConsumer onPageDeleted) {
+        long deleted = 0;
+        int failed = 0;
+        String continuationToken = null;
+
+        do {
+            ListObjectsV2Response page = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .maxKeys(MAX_DELETE_BATCH)
+                    .continuationToken(continuationToken)
+                    .build());
+
+            List<ObjectIdentifier> keys = page.contents().stream()
+                    .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                    .toList();
+
+            if (!keys.isEmpty()) {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(keys).quiet(true).build()) // quiet: 실패한 키만 응답
+                        .build());
+
+                int pageDeleted = keys.size() - response.errors().size();
+                failed += response.errors().size();
+                deleted += pageDeleted;
+                onPageDeleted.accept(pageDeleted);
+            }
+
+            continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+        } while (continuationToken != null);
+
+        if (failed > 0) {
+            throw new RuntimeException("S3 객체 " + failed + "개 삭제 실패 (prefix: " + prefix + ")");
+        }
+        return deleted;
+    }
+
+    private void abortMultipartUpload(String objectKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            System.err.println("S3 멀티파트 업로드 중단 실패: " + objectKey + ", Error: " + e.getMessage());
+        }
+    }
+
+    // 버퍼가 가득 차거나 스트림이 끝날 때까지 읽음
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        return in.readNBytes(buffer, 0, buffer.length);
+    }
+
     /**
      * S3 객체 삭제 메서드
      */
@@ -0,0 +1,65 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.utility.SecurityAnswerHasher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 평문 보안 질문 답변(users.ask_answer)을 해시 컬럼(ask_answer_hash)으로 옮기는 일회성 작업
+ *
+ * - 시작 시 해시가 비어 있고 평문이 남아 있는 행만 batch-size씩 처리
+ * - 해시를 채우면서 평문은 NULL로 지움 (다시 실행해도 이미 옮긴 행은 건너뜀)
+ */
+@Component
+public class SecurityAnswerBackfill {
+
+    private static final String SELECT_PENDING_SQL =
+        "SELECT id, ask_answer FROM users WHERE ask_answer_hash IS NULL AND ask_answer IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String UPDATE_HASH_SQL =
+        "UPDATE users SET ask_answer_hash = ?, ask_answer = NULL WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityAnswerHasher securityAnswerHasher;
+    private final int batchSize;
+
+    public SecurityAnswerBackfill(
+        JdbcTemplate jdbcTemplate,
+        SecurityAnswerHasher securityAnswerHasher,
+        @Value("${auth.security-answer.backfill-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.securityAnswerHasher = securityAnswerHasher;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int migrated = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = jdbcTemplate.query(SELECT_PENDING_SQL,
+                    (rs, rowNum) -> new Object[] {
+                        securityAnswerHasher.hash(rs.getString("ask_answer")),
+                        rs.getLong("id")
+                    },
+                    batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                jdbcTemplate.batchUpdate(UPDATE_HASH_SQL, rows);
+                migrated += rows.size();
+            }
+        } catch (Exception e) {
+            // 실패해도 서비스는 계속 (옮기지 못한 사용자는 보안 질문 인증만 실패하고 다음 시작 시 재시도)
+            System.err.println("보안 질문 답변 해시 이전 실패: " + e.getMessage());
+        }
+        if (migrated > 0) {
+            System.out.println("보안 질문 답변 해시 이전 완료: " + migrated + "건");
+        }
+    }
+}
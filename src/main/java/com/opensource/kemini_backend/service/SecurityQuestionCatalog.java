@@ -0,0 +1,96 @@
+package com.opensource.kemini_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opensource.kemini_backend.dto.ApiResponse;
+import com.opensource.kemini_backend.dto.SecurityQuestionResponseDto;
+import com.opensource.kemini_backend.repository.SecurityQuestionRepository;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 보안 질문 목록의 메모리 스냅샷
+ *
+ * 질문 목록은 data.sql로 넣어두고 거의 바뀌지 않으므로,
+ * DTO 리스트 / 직렬화된 JSON 응답 바이트 / ETag를 미리 만들어두고 요청마다 그대로 사용합니다.
+ * 시작 시 한 번 만들고, 주기적으로 DB를 확인해 내용이 바뀐 경우에만 교체합니다.
+ */
+@Component
+public class SecurityQuestionCatalog {
+
+    public static final String RESPONSE_MESSAGE = "보안 질문 목록 조회에 성공했습니다.";
+
+    /**
+     * @param questions 질문 DTO 목록 (불변)
+     * @param json      ApiResponse로 감싼 응답 JSON (UTF-8)
+     * @param etag      json의 SHA-256 기반 strong ETag (따옴표 포함)
+     */
+    public record Snapshot(List<SecurityQuestionResponseDto> questions, byte[] json, String etag) {}
+
+    private final SecurityQuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public SecurityQuestionCatalog(SecurityQuestionRepository questionRepository, ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    /**
+     * DB에서 다시 읽어 내용이 바뀐 경우에만 스냅샷을 교체합니다.
+     * (data.sql 적용이 끝난 시작 시점 + 주기적 확인)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security-questions.refresh-interval-ms:600000}",
+               initialDelayString = "${security-questions.refresh-interval-ms:600000}")
+    public void refresh() {
+        reload();
+    }
+
+    // 이벤트 리스너가 값을 반환하면 Spring이 그 값을 다시 이벤트로 발행하므로, 스냅샷 반환은 여기서만
+    private synchronized Snapshot reload() {
+        List<SecurityQuestionResponseDto> questions = questionRepository.findAllByOrderByIdAsc().stream()
+            .map(question -> new SecurityQuestionResponseDto(
+                question.getId(),
+                question.getQuestionText()
+            ))
+            .toList();
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.success(questions, RESPONSE_MESSAGE));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("보안 질문 목록 직렬화 실패: " + e.getMessage());
+        }
+
+        Snapshot current = snapshot;
+        if (current == null || !Arrays.equals(current.json(), json)) {
+            snapshot = new Snapshot(questions, json, etagOf(json));
+        }
+        return snapshot;
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.dto.BulkSignUpResultDto;
+import com.opensource.kemini_backend.dto.SignUpRequestDto;
+import com.opensource.kemini_backend.utility.PhoneNumberUtil;
+import com.opensource.kemini_backend.utility.SecurityAnswerHasher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 관리자용 대량 사용자 등록 (고객사 현장 단위 온보딩)
+ *
+ * 1. 요청 검증 (필수값, 요청 내 중복 이메일)
+ * 2. Cognito signUp → adminConfirmSignUp 을 동시 실행 개수 제한(admin.provisioning.concurrency) 하에 비동기 실행
+ * 3. Cognito 등록에 성공한 사용자만 users 테이블에 JDBC 배치 insert
+ *    (청크 단위 트랜잭션이라 배치가 실패하면 전부 롤백된 뒤 건별 insert로 재시도하고,
+ *     그래도 실패한 건은 Cognito 계정을 삭제)
+ * 4. 요청 순서대로 건별 결과 반환
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (email, name, phone_number, ask_id, ask_answer_hash, status) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final CognitoSignUpClient cognitoSignUpClient;
+    private final EmailAvailabilityFilter emailAvailabilityFilter;
+    private final SecurityAnswerHasher securityAnswerHasher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxRecords;
+
+    public UserProvisioningService(
+        CognitoSignUpClient cognitoSignUpClient,
+        EmailAvailabilityFilter emailAvailabilityFilter,
+        SecurityAnswerHasher securityAnswerHasher,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${admin.provisioning.concurrency:8}") int concurrency,
+        @Value("${admin.provisioning.batch-size:100}") int batchSize,
+        @Value("${admin.provisioning.max-records:1000}") int maxRecords) {
+        this.cognitoSignUpClient = cognitoSignUpClient;
+        this.emailAvailabilityFilter = emailAvailabilityFilter;
+        this.securityAnswerHasher = securityAnswerHasher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.maxRecords = maxRecords;
+    }
+
+    // Cognito 등록이 끝난 사용자 (DB insert 대기)
+    private record PendingUser(int index, SignUpRequestDto request, String normalizedPhone) {}
+
+    public BulkSignUpResultDto provision(List<SignUpRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("등록할 사용자 목록이 비어 있습니다.");
+        }
+        if (requests.size() > maxRecords) {
+            throw new RuntimeException("한 번에 등록할 수 있는 사용자는 최대 " + maxRecords + "명입니다.");
+        }
+
+        BulkSignUpResultDto.Item[] results = new BulkSignUpResultDto.Item[requests.size()];
+        PendingUser[] registered = new PendingUser[requests.size()];
+
+        // 1 + 2. 검증 후 Cognito 등록 (동시 실행 개수 제한)
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            SignUpRequestDto request = requests.get(i);
+            String invalidReason = validate(request, seenEmails);
+            if (invalidReason != null) {
+                results[i] = failure(request == null ? null : request.email(), invalidReason);
+                continue;
+            }
+
+            int index = i;
+            String normalizedPhone = PhoneNumberUtil.normalize(request.phoneNumber());
+
+            permits.acquireUninterruptibly();
+            CompletableFuture<Void> submitted;
+            try {
+                submitted = cognitoSignUpClient.registerConfirmed(request, normalizedPhone);
+            } catch (RuntimeException e) {
+                // 요청 생성 단계(SECRET_HASH 계산 등)에서 바로 실패하면 whenComplete가 붙지 않으므로 여기서 반납
+                permits.release();
+                results[i] = failure(request.email(), "Cognito 등록 실패: " + e.getMessage());
+                continue;
+            }
+            CompletableFuture<Void> call = submitted
+                .whenComplete((done, e) -> {
+                    permits.release();
+                    if (e != null) {
+                        results[index] = failure(request.email(), "Cognito 등록 실패: " + CognitoSignUpClient.unwrap(e).getMessage());
+                    } else {
+                        registered[index] = new PendingUser(index, request, normalizedPhone);
+                    }
+                });
+            calls.add(call.exceptionally(e -> null));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+        // 3. Cognito 등록에 성공한 사용자만 배치 insert
+        List<PendingUser> pending = Arrays.stream(registered).filter(p -> p != null).toList();
+        List<CompletableFuture<Void>> compensations = new ArrayList<>();
+
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<PendingUser> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            insertChunk(chunk, results, compensations);
+        }
+        CompletableFuture.allOf(compensations.toArray(CompletableFuture[]::new)).join();
+
+        // 4. 결과 집계
+        int succeeded = (int) Arrays.stream(results).filter(BulkSignUpResultDto.Item::success).count();
+        return new BulkSignUpResultDto(results.length, succeeded, results.length - succeeded, List.of(results));
+    }
+
+    private void insertChunk(List<PendingUser> chunk, BulkSignUpResultDto.Item[] results,
+                             List<CompletableFuture<Void>> compensations) {
+        try {
+            // 일부 행만 커밋된 채로 재시도하면 중복 키로 실패해 멀쩡한 계정까지 삭제되므로 청크 전체를 한 트랜잭션으로
+            List<Object[]> rows = chunk.stream().map(this::toRow).toList();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows));
+            for (PendingUser user : chunk) {
+                inserted(user, results);
+            }
+            return;
+        } catch (DataAccessException | TransactionException e) {
+            // 커밋 단계 실패(TransactionException)도 롤백된 것이므로 같은 방식으로 재시도
+            System.err.println("대량 등록 배치 insert 실패(롤백됨), 건별 insert로 재시도: " + e.getMessage());
+        }
+
+        // 배치 실패 시 어떤 건이 문제인지 알 수 있도록 건별 insert
+        for (PendingUser user : chunk) {
+            try {
+                Object[] row = toRow(user);
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_USER_SQL, row));
+                inserted(user, results);
+            } catch (DataAccessException | TransactionException e) {
+                results[user.index()] = failure(user.request().email(), "DB 저장 실패: " + e.getMostSpecificCause().getMessage());
+                compensations.add(cognitoSignUpClient.deleteQuietly(user.request().email()));
+            }
+        }
+    }
+
+    private Object[] toRow(PendingUser user) {
+        SignUpRequestDto request = user.request();
+        return new Object[] {
+            request.email(),
+            request.name(),
+            user.normalizedPhone(),
+            request.askId(),
+            securityAnswerHasher.hash(request.askAnswer()),
+            "CONFIRMED"
+        };
+    }
+
+    // 요청 건 검증 (문제가 없으면 null)
+    private String validate(SignUpRequestDto request, Set<String> seenEmails) {
+        if (request == null || request.email() == null || request.email().isBlank()) {
+            return "이메일이 비어 있습니다.";
+        }
+        if (request.password() == null || request.password().isBlank()) {
+            return "비밀번호가 비어 있습니다.";
+        }
+        if (!seenEmails.add(request.email())) {
+            return "요청 내에 중복된 이메일입니다.";
+        }
+        return null;
+    }
+
+    // DB에 커밋된 사용자만 가입 여부 필터에 반영
+    private void inserted(PendingUser user, BulkSignUpResultDto.Item[] results) {
+        String email = user.request().email();
+        emailAvailabilityFilter.add(email);
+        results[user.index()] = new BulkSignUpResultDto.Item(email, true, "등록 성공");
+    }
+
+    private static BulkSignUpResultDto.Item failure(String email, String message) {
+        return new BulkSignUpResultDto.Item(email, false, message);
+    }
+}
@@ -1,14 +1,23 @@
 package com.opensource.kemini_backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opensource.kemini_backend.dto.*;
-import com.opensource.kemini_backend.model.SecurityQuestion;
+import com.opensource.kemini_backend.model.CognitoSyncOutbox;
 import com.opensource.kemini_backend.model.User;
-import com.opensource.kemini_backend.repository.SecurityQuestionRepository;
+import com.opensource.kemini_backend.repository.CognitoSyncOutboxRepository;
 import com.opensource.kemini_backend.repository.UserRepository;
-import com.opensource.kemini_backend.utility.CognitoSecretHashUtil;
-
+import com.opensource.kemini_backend.security.AccessTokenCache;
+import com.opensource.kemini_backend.security.JwtClaimExtractor;
+import com.opensource.kemini_backend.security.RevokedTokenDenylist;
+import com.opensource.kemini_backend.security.UserIdResolver;
+import com.opensource.kemini_backend.utility.CognitoSecretHashEngine;
+import com.opensource.kemini_backend.utility.SecurityAnswerHasher;
+import com.opensource.kemini_backend.utility.PhoneNumberUtil;
+
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -16,7 +25,8 @@ import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityPr
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional
@@ -26,137 +36,120 @@ public class UserService {
     private String clientId;
     @Value("${aws.cognito.userPoolId}")
     private String userPoolId;
-    @Value("${aws.cognito.clientSecret}") 
-    private String clientSecret;
 
     private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoSignUpClient cognitoSignUpClient;
+    private final Executor dbExecutor;
+    private final CognitoSecretHashEngine secretHashEngine;
+    private final SecurityAnswerHasher securityAnswerHasher;
     private final UserRepository userRepository;
-    private final SecurityQuestionRepository questionRepository;
+    private final CognitoSyncOutboxRepository cognitoSyncOutboxRepository;
+    private final AccountPurgeService accountPurgeService;
+    private final SecurityQuestionCatalog securityQuestionCatalog;
+    private final EmailAvailabilityFilter emailAvailabilityFilter;
+    private final AccessTokenCache tokenCache;
+    private final RevokedTokenDenylist denylist;
+    private final UserIdResolver userIdResolver;
+    private final JwtClaimExtractor claimExtractor = new JwtClaimExtractor(new ObjectMapper());
 
     // 생성자
     public UserService(
         CognitoIdentityProviderClient cognitoClient,
+        CognitoSignUpClient cognitoSignUpClient,
+        @Qualifier("applicationTaskExecutor") Executor dbExecutor,
+        CognitoSecretHashEngine secretHashEngine,
+        SecurityAnswerHasher securityAnswerHasher,
         UserRepository userRepository,
-        SecurityQuestionRepository questionRepository) {
+        CognitoSyncOutboxRepository cognitoSyncOutboxRepository,
+        AccountPurgeService accountPurgeService,
+        SecurityQuestionCatalog securityQuestionCatalog,
+        EmailAvailabilityFilter emailAvailabilityFilter,
+        AccessTokenCache tokenCache,
+        RevokedTokenDenylist denylist,
+        UserIdResolver userIdResolver) {
         this.cognitoClient = cognitoClient;
+        this.cognitoSignUpClient = cognitoSignUpClient;
+        this.dbExecutor = dbExecutor;
+        this.secretHashEngine = secretHashEngine;
+        this.securityAnswerHasher = securityAnswerHasher;
         this.userRepository = userRepository;
-        this.questionRepository = questionRepository;
-    }
-
-    // 전화번호를 +82 국제 표준 형식으로 변환하는 헬퍼 메서드
-    private String normalizePhoneNumber(String phoneNumber) {
-        if (phoneNumber == null || phoneNumber.isBlank()) {
-            // (필수 값이므로) 혹은 null을 반환하는 대신 예외를 던질 수도 있습니다.
-            return phoneNumber; 
-        }
-
-        // 혹시 모를 하이픈(-) 제거
-        String digits = phoneNumber.replaceAll("-", "");
-
-        // 이미 +82로 시작하는 올바른 형식인가?
-        if (digits.startsWith("+82")) {
-            return digits;
-        }
-
-        // 010, 011 등 '0'으로 시작하는 한국 형식인가?
-        if (digits.startsWith("01")) {
-            // 맨 앞의 '0'을 제거하고 '+82'를 붙입니다.
-            return "+82" + digits.substring(1);
-        }
-
-        // 그 외의 형식은 Cognito가 어차피 거부할 것이므로 그대로 반환
-        return digits;
+        this.cognitoSyncOutboxRepository = cognitoSyncOutboxRepository;
+        this.accountPurgeService = accountPurgeService;
+        this.securityQuestionCatalog = securityQuestionCatalog;
+        this.emailAvailabilityFilter = emailAvailabilityFilter;
+        this.tokenCache = tokenCache;
+        this.denylist = denylist;
+        this.userIdResolver = userIdResolver;
     }
 
     // 회원가입 메서드
-    public void signUp(SignUpRequestDto signUpRequest) {
+    // Cognito signUp → adminConfirmSignUp → DB insert 를 비동기 파이프라인으로 연결합니다.
+    // (클래스 레벨 트랜잭션을 적용하지 않아, DB 커넥션은 마지막 insert 시점에만 사용)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Void> signUp(SignUpRequestDto signUpRequest) {
         
         // 전화번호 변환
-        String normalizedPhone = normalizePhoneNumber(signUpRequest.phoneNumber());
-
-        // 변환된 번호로 Cognito 속성 생성
-        List<AttributeType> userAttributes = List.of(
-            AttributeType.builder().name("email").value(signUpRequest.email()).build(),
-            AttributeType.builder().name("name").value(signUpRequest.name()).build(),
-            AttributeType.builder().name("phone_number").value(normalizedPhone).build()
-        );
-
-        String secretHash = CognitoSecretHashUtil.calculateSecretHash(
-            clientId, 
-            clientSecret, 
-            signUpRequest.email()
-        );
-
-        SignUpRequest cognitoSignUpRequest = SignUpRequest.builder()
-                .clientId(clientId)
-                .secretHash(secretHash)
-                .username(signUpRequest.email()) 
-                .password(signUpRequest.password())
-                .userAttributes(userAttributes)
-                .build();
-
-        try {
-            cognitoClient.signUp(cognitoSignUpRequest);
-            
-            AdminConfirmSignUpRequest adminConfirmRequest = AdminConfirmSignUpRequest.builder()
-                .userPoolId(userPoolId)
-                .username(signUpRequest.email())
-                .build();
-            cognitoClient.adminConfirmSignUp(adminConfirmRequest);
-            
-            //DB에도 변환된 번호로 저장 (데이터 일관성)
-            User newUser = User.builder()
-                .email(signUpRequest.email())
-                .name(signUpRequest.name())
-                .phoneNumber(normalizedPhone)
-                .status("CONFIRMED") 
-                .askId(signUpRequest.askId())
-                .askAnswer(signUpRequest.askAnswer())
-                .build();
-            userRepository.save(newUser);
+        String normalizedPhone = PhoneNumberUtil.normalize(signUpRequest.phoneNumber());
+
+        //DB에도 변환된 번호로 저장 (데이터 일관성)
+        User newUser = User.builder()
+            .email(signUpRequest.email())
+            .name(signUpRequest.name())
+            .phoneNumber(normalizedPhone)
+            .status("CONFIRMED") 
+            .askId(signUpRequest.askId())
+            .askAnswerHash(securityAnswerHasher.hash(signUpRequest.askAnswer()))
+            .build();
 
-        } catch (Exception e) {
-            throw new RuntimeException("회원가입 오류: " + e.getMessage());
-        }
+        return cognitoSignUpClient.registerConfirmed(signUpRequest, normalizedPhone)
+            // DB 작업은 SDK 응답 스레드가 아닌 애플리케이션 실행기에서 수행 (save 자체 트랜잭션)
+            .thenCompose(confirmed -> CompletableFuture.runAsync(() -> {
+                    userRepository.save(newUser);
+                    emailAvailabilityFilter.add(newUser.getEmail());
+                }, dbExecutor)
+                // Cognito에 계정이 생성된 뒤 실패하면, 재가입이 가능하도록 Cognito 계정을 되돌림
+                .exceptionallyCompose(e -> cognitoSignUpClient.deleteQuietly(signUpRequest.email())
+                    .thenCompose(ignored -> CompletableFuture.<Void>failedFuture(e))))
+            .exceptionally(e -> {
+                throw new RuntimeException("회원가입 오류: " + CognitoSignUpClient.unwrap(e).getMessage());
+            });
     }
     
     // 아이디(이메일) 찾기 (보안 질문 기반)
     public String findEmailByQuestion(FindEmailRequestDto request) {
-        String normalizedPhone = normalizePhoneNumber(request.phoneNumber());
-        // DB에서 3가지 정보가 일치하는 사용자를 찾음
-        User user = userRepository.findByPhoneNumberAndAskIdAndAskAnswer(
+        String normalizedPhone = PhoneNumberUtil.normalize(request.phoneNumber());
+        // DB에서 3가지 정보(답변은 해시)가 일치하는 사용자의 이메일을 찾음
+        return userRepository.findEmailBySecurityAnswer(
                 normalizedPhone,
                 request.askId(),
-                request.askAnswer()).orElseThrow(() -> new RuntimeException("일치하는 사용자 정보가 없습니다.")); // 없으면 예외
-
-        // 있으면 이메일 반환
-        return user.getEmail();
+                securityAnswerHasher.hash(request.askAnswer())).orElseThrow(() -> new RuntimeException("일치하는 사용자 정보가 없습니다.")); // 없으면 예외
     }
 
     // 비밀번호 찾기 1단계: 이메일로 askId 조회
     @Transactional(readOnly = true)
     public Long findAskIdByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        return userRepository.findAskIdByEmail(email)
                 .orElseThrow(() -> new RuntimeException("가입되지 않은 아이디입니다."));
-        return user.getAskId();
     }
 
     // 비밀번호 찾기 2단계: 질문 답변 검증
     @Transactional(readOnly = true)
     public void verifySecurityQuestion(String email, Long askId, String askAnswer) {
         // 사용자가 존재하는지 확인 (없으면 예외 발생)
-        userRepository.findByEmailAndAskIdAndAskAnswer(email, askId, askAnswer)
-                .orElseThrow(() -> new RuntimeException("답변이 일치하지 않습니다."));
+        if (!userRepository.existsByEmailAndAskIdAndAskAnswerHash(email, askId, securityAnswerHasher.hash(askAnswer))) {
+            throw new RuntimeException("답변이 일치하지 않습니다.");
+        }
     }
 
     // 비밀번호 재설정 (3단계): 전화번호 검증 로직을 제거하고 이메일+질문 만으로 검증
     public void resetPasswordByQuestion(ResetPasswordByQuestionRequestDto request) {
         // 1. 전화번호 없이 이메일+질문+답변으로만 사용자 조회
-        User user = userRepository.findByEmailAndAskIdAndAskAnswer(
+        if (!userRepository.existsByEmailAndAskIdAndAskAnswerHash(
                 request.email(),
                 request.askId(),
-                request.askAnswer()
-        ).orElseThrow(() -> new RuntimeException("입력한 정보가 일치하지 않습니다."));
+                securityAnswerHasher.hash(request.askAnswer()))) {
+            throw new RuntimeException("입력한 정보가 일치하지 않습니다.");
+        }
 
         // 2. Cognito 비밀번호 강제 재설정 (기존 동일)
         AdminSetUserPasswordRequest adminSetPasswordRequest = AdminSetUserPasswordRequest.builder()
@@ -182,45 +175,36 @@ public class UserService {
     }
     
     // 사용자 정보 수정 (UpdateUserRequestDto 필요)
+    // Cognito 속성 동기화는 같은 트랜잭션에서 outbox에 기록만 하고,
+    // 커밋 이후 CognitoSyncOutboxDispatcher가 비동기로 반영합니다.
     public void updateUser(String email, UpdateUserRequestDto updateRequest) {
 
         // DB 정보 수정 및 저장
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
 
+        // 회원가입과 같은 +82 형식으로 저장해야 전화번호로 아이디 찾기(idx_users_phone_answer)가 일치함
+        String normalizedPhone = PhoneNumberUtil.normalize(updateRequest.phoneNumber());
+        // Cognito가 거부할 값은 outbox에 넣기 전에 걸러냄 (비동기 반영 단계에서는 사용자에게 알릴 수 없음)
+        if (normalizedPhone != null && !PhoneNumberUtil.isValid(normalizedPhone)) {
+            throw new RuntimeException("전화번호 형식이 올바르지 않습니다.");
+        }
+
         // Entity 내부 메서드로 필드 업데이트
-        user.updateDetails(updateRequest.name(), updateRequest.phoneNumber());
+        user.updateDetails(updateRequest.name(), normalizedPhone);
         userRepository.save(user);
 
-        // Cognito 속성 동기화 (Admin API 사용)
-        List<AttributeType> attributesToUpdate = new ArrayList<>();
-
-        if (updateRequest.name() != null) {
-            attributesToUpdate.add(AttributeType.builder().name("name").value(updateRequest.name()).build());
-        }
-        if (updateRequest.phoneNumber() != null) {
-            attributesToUpdate
-                    .add(AttributeType.builder().name("phone_number").value(updateRequest.phoneNumber()).build());
-        }
-
-        if (!attributesToUpdate.isEmpty()) {
-            AdminUpdateUserAttributesRequest cognitoUpdateReq = AdminUpdateUserAttributesRequest.builder()
-                    .userPoolId(userPoolId) // @Value로 주입받은 userPoolId
-                    .username(email)
-                    .userAttributes(attributesToUpdate)
-                    .build();
-
-            try {
-                cognitoClient.adminUpdateUserAttributes(cognitoUpdateReq);
-            } catch (Exception e) {
-                // Cognito 업데이트 실패 시 DB 롤백 또는 로깅 처리 필요 (운영 시점)
-                throw new RuntimeException("Cognito 속성 업데이트 실패: " + e.getMessage());
-            }
+        // Cognito 속성 동기화 요청 기록 (변경된 속성이 있을 때만)
+        if (updateRequest.name() != null || normalizedPhone != null) {
+            cognitoSyncOutboxRepository.save(
+                new CognitoSyncOutbox(email, updateRequest.name(), normalizedPhone));
         }
     }
 
-    // 사용자 삭제 (Cognito AdminDeleteUser + DB Delete 필요)
-    public void deleteUser(String email) {
+    // 사용자 삭제 (Cognito AdminDeleteUser 후 데이터 정리 작업 등록)
+    // S3 객체/가상환경/users 행은 커밋 이후 AccountPurgeService가 백그라운드에서 삭제합니다.
+    // DB에 사용자가 없으면(Cognito에만 있던 계정) 정리할 데이터가 없으므로 empty
+    public Optional<AccountPurgeJobDto> deleteUser(String email) {
 
         // Cognito 사용자 계정 삭제 (Admin API 사용)
         // 서버에서 관리자 권한으로 삭제하므로 사용자 토큰이 필요 없습니다.
@@ -236,8 +220,17 @@ public class UserService {
             System.err.println("Cognito 사용자 삭제 실패: " + e.getMessage());
         }
 
-        // DB 사용자 레코드 삭제
-        userRepository.deleteByEmail(email);
+        // 인증 필터 캐시에 남아있는 이 사용자의 토큰 및 ID 매핑 즉시 제거
+        // (LOCAL 검증은 서명만 보므로 탈퇴 이전에 발급된 토큰은 거부 목록에도 등록)
+        denylist.revokeUser(email);
+        tokenCache.evictUser(email);
+        userIdResolver.evict(email);
+
+        // DB 사용자는 정리 작업이 끝날 때 삭제되므로 그 전까지 DELETING 상태로 표시
+        return userRepository.findByEmail(email).map(user -> {
+            user.setStatus("DELETING");
+            return accountPurgeService.requestPurge(user.getId(), email);
+        });
     }
 
     // 로그인
@@ -245,10 +238,7 @@ public class UserService {
         String username = loginRequest.email();
 
         // SECRET_HASH 계산
-        String secretHash = CognitoSecretHashUtil.calculateSecretHash(
-                clientId,
-                clientSecret,
-                username);
+        String secretHash = secretHashEngine.calculate(username);
 
         // AuthParameters 구성 (USERNAME, PASSWORD, SECRET_HASH 포함)
         Map<String, String> authParameters = new HashMap<>();
@@ -279,9 +269,22 @@ public class UserService {
                 .accessToken(accessToken) // 무효화할 Access Token
                 .build();
 
+        // 인증 필터 캐시에서 먼저 제거하고 거부 목록에 등록 (Cognito 호출 결과와 무관하게 이 토큰은 더 이상 통과하지 않도록)
+        JwtClaimExtractor.Claims claims = claimExtractor.extract(accessToken);
+        denylist.revokeToken(accessToken, claims != null ? claims.expiresAtEpochSecond() * 1000L : 0L);
+        tokenCache.evictToken(accessToken);
+
         try {
             // Cognito API 호출: 세션 무효화
-            return cognitoClient.globalSignOut(signOutRequest);
+            GlobalSignOutResponse response = cognitoClient.globalSignOut(signOutRequest);
+
+            // GlobalSignOut은 사용자의 모든 토큰을 무효화하므로 다른 기기의 토큰도 함께 거부
+            // (서명 검증 전의 payload이므로 Cognito가 토큰을 받아들인 뒤에만 사용자 단위로 적용)
+            if (claims != null && claims.username() != null) {
+                denylist.revokeUser(claims.username());
+                tokenCache.evictUser(claims.username());
+            }
+            return response;
 
         } catch (NotAuthorizedException e) {
             // "Invalid Access Token" 등 토큰이 유효하지 않을 때 발생하는 예외
@@ -307,11 +310,7 @@ public class UserService {
         String email = refreshRequest.email();
 
         // SECRET_HASH 계산 (기존 유틸리티 재사용)
-        String secretHash = CognitoSecretHashUtil.calculateSecretHash(
-                clientId,
-                clientSecret,
-                email
-        );
+        String secretHash = secretHashEngine.calculate(email);
 
         // AuthParameters 구성 (REFRESH_TOKEN, SECRET_HASH 포함)
         Map<String, String> authParameters = new HashMap<>();
@@ -353,27 +352,19 @@ public class UserService {
         }
     }
     
-    // 보안 질문 목록 전체 조회
+    // 보안 질문 목록 전체 조회 (메모리 스냅샷 사용, DB 조회 없음)
     public List<SecurityQuestionResponseDto> getSecurityQuestions() {
-        // 1. DB에서 모든 질문을 찾음
-        List<SecurityQuestion> questions = questionRepository.findAllByOrderByIdAsc();
-        
-        // 2. DTO 리스트로 변환하여 반환
-        return questions.stream()
-            .map(question -> new SecurityQuestionResponseDto(
-                question.getId(), 
-                question.getQuestionText()
-            ))
-            .collect(Collectors.toList());
+        return securityQuestionCatalog.current().questions();
     }
 
     // 아이디(이메일) 중복 확인
+    // 블룸 필터가 "확실히 없음"이라고 하면 DB 조회 없이 바로 사용 가능 응답
     @Transactional(readOnly = true) // 읽기 전용 트랜잭션
     public String checkEmailAvailability(String email) {
-        // DB에서 이메일 조회
-        Optional<User> existingUser = userRepository.findByEmail(email);
+        // 블룸 필터 → (있을 수도 있는 경우만) DB에서 이메일 조회
+        boolean exists = emailAvailabilityFilter.exists(email, userRepository::existsByEmail);
 
-        if (existingUser.isPresent()) {
+        if (exists) {
             // 이미 존재하면, 예외를 발생시킴
             // (GlobalExceptionHandler가 400 Bad Request로 처리)
             throw new RuntimeException("이미 사용 중인 아이디입니다.");
@@ -387,14 +378,11 @@ public class UserService {
     @Transactional(readOnly = true)
     public Long findAskIdByPhoneNumber(String phoneNumber) {
         // 1. 전화번호 정규화 (010 -> +8210)
-        String normalizedPhone = normalizePhoneNumber(phoneNumber); //
+        String normalizedPhone = PhoneNumberUtil.normalize(phoneNumber); //
 
-        // 2. DB 조회
-        User user = userRepository.findByPhoneNumber(normalizedPhone)
+        // 2. DB 조회 (askId만 조회)
+        return userRepository.findAskIdByPhoneNumber(normalizedPhone)
                 .orElseThrow(() -> new RuntimeException("가입되지 않은 전화번호입니다."));
-
-        // 3. askId 반환
-        return user.getAskId();
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.opensource.kemini_backend.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열용 블룸 필터 (스레드 안전, 추가만 가능)
+ *
+ * - mightContain이 false면 "확실히 없음", true면 "있을 수도 있음"(오탐 가능)
+ * - 크기는 예상 원소 수(expectedInsertions)와 목표 오탐률(falsePositiveRate)로 결정
+ * - 해시: FNV-1a 64비트 → splitmix64로 두 개의 해시를 만들어 k개 위치 계산 (Kirsch-Mitzenmacher)
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1L, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1L, (bits + 63) / 64);
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = fnv1a64(value);
+        long h1 = splitmix64(hash);
+        long h2 = splitmix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long hash = fnv1a64(value);
+        long h1 = splitmix64(hash);
+        long h2 = splitmix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 비트 배열이 차지하는 메모리 (바이트)
+    public long sizeInBytes() {
+        return bitSize / 8;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 추정한 오탐률 = (set bits / m)^k
+     */
+    public double estimatedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashFunctions);
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    private static long fnv1a64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long splitmix64(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,120 @@
+package com.opensource.kemini_backend.utility;
+
+import com.opensource.kemini_backend.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 외부 백엔드의 동시 호출 수를 제한하는 벌크헤드
+ *
+ * - 동시에 maxConcurrent개까지만 호출, 나머지는 최대 maxQueue개까지 maxWaitMillis 동안 대기
+ * - 대기열이 가득 찼거나 대기 시간이 지나면 바로 TooManyRequestsException (429)
+ * - Retry-After는 최근 처리 시간(지수 이동 평균)과 현재 대기열 길이로 추정
+ *
+ * 지표: {name}.active, {name}.queued, {name}.rejected{reason=queue-full|wait-timeout}, {name}.service-time
+ */
+public class Bulkhead {
+
+    // 최근 처리 시간 평균에 새 값을 반영하는 비율
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile double averageServiceMillis = -1;
+
+    private final Counter queueFullRejections;
+    private final Counter waitTimeoutRejections;
+    private final Timer serviceTimer;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder(name + ".active", active, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder(name + ".queued", queued, AtomicInteger::get).register(meterRegistry);
+        this.queueFullRejections = meterRegistry.counter(name + ".rejected", "reason", "queue-full");
+        this.waitTimeoutRejections = meterRegistry.counter(name + ".rejected", "reason", "wait-timeout");
+        this.serviceTimer = meterRegistry.timer(name + ".service-time");
+    }
+
+    /**
+     * 호출 권한을 얻습니다. 받은 Permit은 호출이 끝나면 반드시 close 해야 합니다.
+     */
+    public Permit acquire() {
+        // 시간 제한 없는 tryAcquire는 공정 모드에서도 대기 중인 요청을 앞지르므로, 대기열이 비어 있을 때만 바로 획득
+        if (queued.get() > 0 || !permits.tryAcquire()) {
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                queueFullRejections.increment();
+                throw new TooManyRequestsException("요청이 많습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds());
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("호출 대기 중단");
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!acquired) {
+                waitTimeoutRejections.increment();
+                throw new TooManyRequestsException("요청이 많습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds());
+            }
+        }
+        active.incrementAndGet();
+        return new Permit(System.nanoTime());
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final long startedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            serviceTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            recordServiceTime(elapsedNanos / 1_000_000.0);
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * 지금 요청하면 슬롯을 얻기까지 걸릴 시간(초) 추정
+     * = (앞선 대기 요청 수 / 동시 호출 수 + 1) × 평균 처리 시간
+     */
+    public long retryAfterSeconds() {
+        double serviceMillis = averageServiceMillis < 0 ? maxWaitMillis : averageServiceMillis;
+        double rounds = (double) queued.get() / maxConcurrent + 1;
+        return Math.max(1, (long) Math.ceil(rounds * serviceMillis / 1000.0));
+    }
+
+    private synchronized void recordServiceTime(double millis) {
+        averageServiceMillis = averageServiceMillis < 0
+            ? millis
+            : averageServiceMillis + EWMA_ALPHA * (millis - averageServiceMillis);
+    }
+}
@@ -0,0 +1,103 @@
+package com.opensource.kemini_backend.utility;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 외부 호출을 보호하는 간단한 서킷 브레이커
+ *
+ * - CLOSED: 정상 호출. 연속 실패가 failureThreshold에 도달하면 OPEN
+ * - OPEN: 호출하지 않음(tryAcquire=false). openDurationMillis가 지나면 HALF_OPEN
+ * - HALF_OPEN: halfOpenMaxCalls개의 시험 호출만 허용. 성공하면 CLOSED, 실패하면 다시 OPEN
+ *
+ * 지표: {name}.state (0=CLOSED, 1=OPEN, 2=HALF_OPEN), {name}.transitions{from,to}
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenMaxCalls;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private volatile long openedAt = 0L;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis, int halfOpenMaxCalls,
+                          MeterRegistry meterRegistry) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(name + ".state", state, s -> s.get().ordinal())
+            .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 지금 외부 호출을 해도 되는지 확인합니다.
+     * true를 받은 호출자는 반드시 onSuccess 또는 onFailure를 호출해야 합니다.
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            // 대기 시간이 지났으면 시험 호출 허용
+            if (transition(State.OPEN, State.HALF_OPEN)) {
+                halfOpenPermits.set(halfOpenMaxCalls);
+            }
+            current = state.get();
+        }
+
+        if (current == State.HALF_OPEN) {
+            return halfOpenPermits.getAndDecrement() > 0;
+        }
+        return current == State.CLOSED;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private void open(State from) {
+        openedAt = System.currentTimeMillis();
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        meterRegistry.counter(name + ".transitions", "from", from.name(), "to", to.name()).increment();
+        return true;
+    }
+}
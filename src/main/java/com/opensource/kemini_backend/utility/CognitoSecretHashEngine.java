@@ -0,0 +1,141 @@
+package com.opensource.kemini_backend.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cognito SECRET_HASH 계산 엔진
+ * SECRET_HASH = Base64(HMAC-SHA256(Client Secret, Username + Client ID))
+ *
+ * CognitoSecretHashUtil과 결과는 같지만, 매 호출마다 Mac.getInstance/init을 하지 않습니다.
+ * - 시작 시 Client Secret으로 한 번만 키를 설정한 Mac을 만들어두고 복제(clone)해서 사용
+ * - 호출하는 스레드는 풀에서 Mac과 작업 버퍼를 빌려 단독으로 사용한 뒤 반납
+ *   (ThreadLocal을 쓰지 않으므로 가상 스레드가 많아져도 인스턴스가 무한히 늘지 않음)
+ */
+@Component
+public class CognitoSecretHashEngine {
+
+    private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
+    private static final int HASH_LENGTH = 32;            // SHA-256 출력 길이
+    private static final int ENCODED_LENGTH = 44;         // Base64(32바이트) 길이
+    private static final int INITIAL_INPUT_CAPACITY = 128;
+
+    private final byte[] clientIdBytes;
+    private final SecretKeySpec secretKey;
+    private final Mac prototype;
+    private final int maxPooled;
+
+    private final ConcurrentLinkedQueue<Slot> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    // 한 번의 계산에 필요한 Mac + 재사용 버퍼 묶음
+    private static final class Slot {
+        final Mac mac;
+        byte[] input = new byte[INITIAL_INPUT_CAPACITY];
+        final byte[] hash = new byte[HASH_LENGTH];
+        final byte[] encoded = new byte[ENCODED_LENGTH];
+
+        Slot(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    public CognitoSecretHashEngine(
+        @Value("${aws.cognito.clientId}") String clientId,
+        @Value("${aws.cognito.clientSecret}") String clientSecret,
+        @Value("${aws.cognito.secret-hash.max-pooled:64}") int maxPooled) {
+        this.clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+        this.maxPooled = maxPooled;
+        this.secretKey = new SecretKeySpec(clientSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256_ALGORITHM);
+        this.prototype = initMac();
+    }
+
+    /**
+     * 사용자 이름(이메일)에 대한 SECRET_HASH를 계산합니다.
+     */
+    public String calculate(String userName) {
+        Slot slot = borrow();
+        try {
+            int length = writeInput(slot, userName);
+            slot.mac.update(slot.input, 0, length);
+            slot.mac.doFinal(slot.hash, 0);
+
+            int encodedLength = Base64.getEncoder().encode(slot.hash, slot.encoded);
+            return new String(slot.encoded, 0, encodedLength, StandardCharsets.ISO_8859_1);
+        } catch (Exception e) {
+            throw new RuntimeException("SECRET_HASH 계산 오류", e);
+        } finally {
+            release(slot);
+        }
+    }
+
+    // 메시지(Username + Client ID)를 슬롯의 입력 버퍼에 UTF-8로 기록하고 길이를 반환
+    private int writeInput(Slot slot, String userName) {
+        int nameLength = userName.length();
+        int maxLength = nameLength * 3 + clientIdBytes.length;
+        if (slot.input.length < maxLength) {
+            slot.input = new byte[maxLength];
+        }
+
+        byte[] buffer = slot.input;
+        int position = 0;
+        for (int i = 0; i < nameLength; i++) {
+            char c = userName.charAt(i);
+            if (c >= 0x80) {
+                // ASCII가 아닌 문자가 섞인 경우만 표준 인코더 사용
+                byte[] encodedName = userName.getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(encodedName, 0, buffer, 0, encodedName.length);
+                position = encodedName.length;
+                break;
+            }
+            buffer[position++] = (byte) c;
+        }
+        System.arraycopy(clientIdBytes, 0, buffer, position, clientIdBytes.length);
+        return position + clientIdBytes.length;
+    }
+
+    private Slot borrow() {
+        Slot slot = pool.poll();
+        if (slot != null) {
+            pooledCount.decrementAndGet();
+            return slot;
+        }
+        return new Slot(newMac());
+    }
+
+    // update 도중 실패해 입력이 남아 있어도 다음 사용자가 오염된 상태를 받지 않도록 초기화 후 반납
+    private void release(Slot slot) {
+        slot.mac.reset();
+        if (pooledCount.incrementAndGet() <= maxPooled) {
+            pool.offer(slot);
+        } else {
+            pooledCount.decrementAndGet();
+        }
+    }
+
+    // 키가 설정된 원본 Mac을 복제 (복제를 지원하지 않는 Provider면 새로 초기화)
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return initMac();
+        }
+    }
+
+    private Mac initMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("SECRET_HASH Mac 초기화 오류", e);
+        }
+    }
+}
@@ -8,6 +8,9 @@ import java.util.Base64;
 /**
  * Cognito SECRET_HASH 계산을 위한 유틸리티 클래스
  * SECRET_HASH = Base64(HMAC-SHA256(Client Secret, Username + Client ID))
+ *
+ * 서비스 코드에서는 키를 한 번만 설정해 재사용하는 CognitoSecretHashEngine을 사용합니다.
+ * (이 클래스는 단발성 계산 및 벤치마크 비교용)
  */
 public class CognitoSecretHashUtil {
 
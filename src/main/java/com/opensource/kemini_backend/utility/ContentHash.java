@@ -0,0 +1,42 @@
+package com.opensource.kemini_backend.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 파일 내용 기반 키(SHA-256 hex) 계산 유틸리티
+ * 스트림을 읽는 동안 함께 계산하므로 내용을 메모리에 올리지 않습니다.
+ */
+public class ContentHash {
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // 스트림 전체를 읽어 해시만 계산
+    public static String of(InputStream in) throws IOException {
+        return copy(in, OutputStream.nullOutputStream());
+    }
+
+    // 스트림을 out으로 복사하면서 해시를 계산
+    public static String copy(InputStream in, OutputStream out) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            digestIn.transferTo(out);
+        }
+        return hex(digest);
+    }
+}
@@ -0,0 +1,116 @@
+package com.opensource.kemini_backend.utility;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * JPEG EXIF의 방향(Orientation, 태그 0x0112) 값을 읽고 픽셀에 적용하는 유틸리티
+ *
+ * 휴대폰 사진은 센서 방향 그대로 저장하고 EXIF 방향 값으로 회전을 표시하므로,
+ * EXIF를 제거하고 다시 인코딩할 때는 회전을 픽셀에 먼저 반영해야 합니다.
+ */
+public class ExifOrientation {
+
+    private static final int TAG_ORIENTATION = 0x0112;
+
+    /**
+     * JPEG 앞부분(APP1 세그먼트가 포함된 범위)에서 방향 값을 읽습니다. (없거나 해석할 수 없으면 1)
+     */
+    public static int read(byte[] head) {
+        try {
+            if (head.length < 4 || (head[0] & 0xff) != 0xFF || (head[1] & 0xff) != 0xD8) {
+                return 1;
+            }
+            int pos = 2;
+            while (pos + 4 <= head.length && (head[pos] & 0xff) == 0xFF) {
+                int marker = head[pos + 1] & 0xff;
+                int length = ((head[pos + 2] & 0xff) << 8) | (head[pos + 3] & 0xff);
+                // SOS 이후는 이미지 데이터
+                if (marker == 0xDA) {
+                    return 1;
+                }
+                if (marker == 0xE1 && isExifHeader(head, pos + 4)) {
+                    return readFromTiff(head, pos + 10, Math.min(head.length, pos + 2 + length));
+                }
+                pos += 2 + length;
+            }
+        } catch (RuntimeException ignored) {
+            // 손상된 EXIF는 무시
+        }
+        return 1;
+    }
+
+    /**
+     * 방향 값에 맞게 회전/반전한 새 이미지를 반환합니다. (1이면 그대로)
+     */
+    public static BufferedImage apply(BufferedImage src, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return src;
+        }
+        int w = src.getWidth();
+        int h = src.getHeight();
+        boolean swap = orientation >= 5;
+        int dw = swap ? h : w;
+        int dh = swap ? w : h;
+
+        int[] in = src.getRGB(0, 0, w, h, null, 0, w);
+        int[] out = new int[in.length];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int dx;
+                int dy;
+                switch (orientation) {
+                    case 2 -> { dx = w - 1 - x; dy = y; }          // 좌우 반전
+                    case 3 -> { dx = w - 1 - x; dy = h - 1 - y; }  // 180도
+                    case 4 -> { dx = x; dy = h - 1 - y; }          // 상하 반전
+                    case 5 -> { dx = y; dy = x; }                  // 전치
+                    case 6 -> { dx = h - 1 - y; dy = x; }          // 시계 방향 90도
+                    case 7 -> { dx = h - 1 - y; dy = w - 1 - x; }  // 반전치
+                    default -> { dx = y; dy = w - 1 - x; }         // 8: 반시계 방향 90도
+                }
+                out[dy * dw + dx] = in[y * w + x];
+            }
+        }
+
+        BufferedImage rotated = new BufferedImage(dw, dh, src.getColorModel().hasAlpha()
+            ? BufferedImage.TYPE_INT_ARGB
+            : BufferedImage.TYPE_INT_RGB);
+        rotated.setRGB(0, 0, dw, dh, out, 0, dw);
+        return rotated;
+    }
+
+    private static boolean isExifHeader(byte[] data, int pos) {
+        return pos + 6 <= data.length
+            && data[pos] == 'E' && data[pos + 1] == 'x' && data[pos + 2] == 'i' && data[pos + 3] == 'f'
+            && data[pos + 4] == 0 && data[pos + 5] == 0;
+    }
+
+    // TIFF 헤더(바이트 순서 + IFD0 위치)를 따라가 IFD0에서 방향 태그를 찾음
+    private static int readFromTiff(byte[] data, int tiff, int end) {
+        boolean littleEndian = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+        int entries = readShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readShort(data, entry, littleEndian) == TAG_ORIENTATION) {
+                int value = readShort(data, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int pos, boolean littleEndian) {
+        int a = data[pos] & 0xff;
+        int b = data[pos + 1] & 0xff;
+        return littleEndian ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int pos, boolean littleEndian) {
+        int hi = readShort(data, littleEndian ? pos + 2 : pos, littleEndian);
+        int lo = readShort(data, littleEndian ? pos : pos + 2, littleEndian);
+        return (hi << 16) | lo;
+    }
+}
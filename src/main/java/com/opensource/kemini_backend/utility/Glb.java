@@ -0,0 +1,121 @@
+package com.opensource.kemini_backend.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * glTF 2.0 바이너리(.glb) 컨테이너 읽기/쓰기
+ *
+ * 구조: 12바이트 헤더(magic "glTF", version 2, 전체 길이) + JSON 청크 + (선택) BIN 청크
+ * 각 청크는 4바이트 단위로 정렬 (JSON은 공백, BIN은 0으로 채움)
+ */
+public class Glb {
+
+    private static final int MAGIC = 0x46546C67;       // "glTF"
+    private static final int CHUNK_JSON = 0x4E4F534A;  // "JSON"
+    private static final int CHUNK_BIN = 0x004E4942;   // "BIN\0"
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ObjectNode json;
+    private byte[] bin;
+
+    public Glb(ObjectNode json, byte[] bin) {
+        this.json = json;
+        this.bin = bin;
+    }
+
+    public ObjectNode json() {
+        return json;
+    }
+
+    // BIN 청크 (없으면 길이 0)
+    public byte[] bin() {
+        return bin;
+    }
+
+    public void setBin(byte[] bin) {
+        this.bin = bin;
+    }
+
+    /**
+     * @throws IOException GLB 형식이 아니거나 손상된 경우
+     */
+    public static Glb parse(byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.length < 20 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != 2) {
+            throw new IOException("glTF 2.0 바이너리가 아닙니다.");
+        }
+        int length = buffer.getInt(8);
+        if (length > data.length) {
+            throw new IOException("GLB 길이가 올바르지 않습니다.");
+        }
+
+        ObjectNode json = null;
+        byte[] bin = new byte[0];
+        int pos = 12;
+        while (pos + 8 <= length) {
+            int chunkLength = buffer.getInt(pos);
+            int chunkType = buffer.getInt(pos + 4);
+            int start = pos + 8;
+            if (chunkLength < 0 || start + chunkLength > length) {
+                throw new IOException("GLB 청크 길이가 올바르지 않습니다.");
+            }
+            if (chunkType == CHUNK_JSON && json == null) {
+                json = (ObjectNode) MAPPER.readTree(data, start, chunkLength);
+            } else if (chunkType == CHUNK_BIN && bin.length == 0) {
+                bin = new byte[chunkLength];
+                System.arraycopy(data, start, bin, 0, chunkLength);
+            }
+            pos = start + chunkLength;
+        }
+        if (json == null) {
+            throw new IOException("GLB에 JSON 청크가 없습니다.");
+        }
+        return new Glb(json, bin);
+    }
+
+    /**
+     * write() 결과의 길이 (BIN은 복사하지 않고 JSON만 직렬화하여 계산)
+     */
+    public long byteLength() throws IOException {
+        return totalLength(jsonBytes().length);
+    }
+
+    public byte[] write() throws IOException {
+        byte[] jsonBytes = jsonBytes();
+        int jsonLength = align4(jsonBytes.length);
+        int binLength = align4(bin.length);
+        int total = totalLength(jsonBytes.length);
+
+        ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(2).putInt(total);
+
+        out.putInt(jsonLength).putInt(CHUNK_JSON).put(jsonBytes);
+        for (int i = jsonBytes.length; i < jsonLength; i++) {
+            out.put((byte) ' ');
+        }
+
+        if (bin.length > 0) {
+            out.putInt(binLength).putInt(CHUNK_BIN).put(bin);
+            // 나머지는 이미 0으로 채워져 있음
+        }
+        return out.array();
+    }
+
+    private byte[] jsonBytes() throws IOException {
+        return MAPPER.writeValueAsString(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int totalLength(int jsonByteCount) {
+        return 12 + 8 + align4(jsonByteCount) + (bin.length > 0 ? 8 + align4(bin.length) : 0);
+    }
+
+    public static int align4(int value) {
+        return (value + 3) & ~3;
+    }
+}
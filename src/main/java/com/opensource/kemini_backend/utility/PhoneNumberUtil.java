@@ -0,0 +1,42 @@
+package com.opensource.kemini_backend.utility;
+
+import java.util.regex.Pattern;
+
+/**
+ * 전화번호를 +82 국제 표준 형식으로 변환하는 유틸리티 클래스
+ * (회원가입/대량 등록/아이디 찾기에서 DB와 Cognito에 같은 형식으로 저장하기 위함)
+ */
+public class PhoneNumberUtil {
+
+    // Cognito phone_number 형식 (E.164: + 국가 번호 포함 최대 15자리)
+    private static final Pattern E164 = Pattern.compile("^\\+[1-9][0-9]{6,14}$");
+
+    public static String normalize(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            // (필수 값이므로) 혹은 null을 반환하는 대신 예외를 던질 수도 있습니다.
+            return phoneNumber; 
+        }
+
+        // 혹시 모를 하이픈(-) 제거
+        String digits = phoneNumber.replace("-", "");
+
+        // 이미 +82로 시작하는 올바른 형식인가?
+        if (digits.startsWith("+82")) {
+            return digits;
+        }
+
+        // 010, 011 등 '0'으로 시작하는 한국 형식인가?
+        if (digits.startsWith("01")) {
+            // 맨 앞의 '0'을 제거하고 '+82'를 붙입니다.
+            return "+82" + digits.substring(1);
+        }
+
+        // 그 외의 형식은 Cognito가 어차피 거부할 것이므로 그대로 반환
+        return digits;
+    }
+
+    // normalize 결과가 Cognito가 받아들이는 형식인지 확인
+    public static boolean isValid(String normalizedPhoneNumber) {
+        return normalizedPhoneNumber != null && E164.matcher(normalizedPhoneNumber).matches();
+    }
+}
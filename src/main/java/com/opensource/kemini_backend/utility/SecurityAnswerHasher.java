@@ -0,0 +1,73 @@
+package com.opensource.kemini_backend.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * 보안 질문 답변 해시 (users.ask_answer_hash)
+ *
+ * - 정규화: 유니코드 NFKC → 앞뒤 공백 제거 → 연속 공백 하나로 → 소문자
+ *   ("서울 초등학교", " 서울  초등학교 "가 같은 값이 됨)
+ * - 해시: HMAC-SHA256(pepper, 정규화된 답변)을 hex(64자)로 저장
+ *   답변은 경우의 수가 적어 단순 SHA-256은 대입으로 쉽게 복원되므로 서버 비밀값(pepper)을 키로 사용
+ * - 같은 답변은 항상 같은 해시가 되므로 DB 인덱스로 바로 비교 가능
+ *
+ * 주의: auth.security-answer.pepper는 필수이며, 바꾸면 기존 해시와 비교할 수 없게 됩니다.
+ *       (Cognito Client Secret을 교체해도 해시가 깨지지 않도록 별도 값을 사용)
+ */
+@Component
+public class SecurityAnswerHasher {
+
+    private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec pepperKey;
+    private final Mac prototype;
+
+    public SecurityAnswerHasher(
+        @Value("${auth.security-answer.pepper}") String pepper) {
+        this.pepperKey = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), HMAC_SHA256_ALGORITHM);
+        this.prototype = initMac();
+    }
+
+    /**
+     * 답변을 정규화한 뒤 해시합니다. (답변이 없으면 null)
+     */
+    public String hash(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        byte[] digest = newMac().doFinal(normalize(answer).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    static String normalize(String answer) {
+        String normalized = Normalizer.normalize(answer, Normalizer.Form.NFKC).strip();
+        return normalized.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // 키가 설정된 원본 Mac을 복제 (복제를 지원하지 않는 Provider면 새로 초기화)
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return initMac();
+        }
+    }
+
+    private Mac initMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256_ALGORITHM);
+            mac.init(pepperKey);
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("보안 질문 답변 해시 초기화 오류", e);
+        }
+    }
+}
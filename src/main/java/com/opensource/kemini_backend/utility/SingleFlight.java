@@ -0,0 +1,103 @@
+package com.opensource.kemini_backend.utility;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키에 대한 동시 호출을 하나로 합쳐주는 유틸리티 (single-flight)
+ *
+ * 먼저 들어온 호출(leader)만 실제 작업을 수행하고,
+ * 작업이 끝나기 전에 같은 키로 들어온 호출들은 그 결과를 그대로 공유합니다.
+ * 작업이 끝나면 키가 제거되므로 결과를 캐시하지는 않습니다.
+ *
+ * submit은 작업을 호출자 스레드가 아닌 executor에서 실행하므로,
+ * 기다리던 호출자가 중간에 포기(취소/인터럽트)해도 공유 작업은 끝까지 진행됩니다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        // 이미 진행 중인 호출이 있으면 그 결과를 기다림
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Error(OOM 등)로 끝나도 기다리던 호출들이 영원히 멈추지 않도록 완료시킴
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 같은 키의 작업이 진행 중이면 거기에 합류하고, 없으면 executor에서 새로 시작합니다.
+     * 반환되는 future는 호출자별 복사본이라 cancel 해도 공유 작업에는 영향이 없습니다.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> call, Executor executor) {
+        return submit(key, call, result -> { }, executor);
+    }
+
+    /**
+     * submit과 같되, 작업이 끝나고 키가 제거된 뒤(더 이상 합류하는 호출이 없을 때) 결과로 onDone을 실행합니다.
+     * 결과가 호출자들이 나눠 쓰는 자원이면, 각 호출자는 반환된 future에 thenApply 등으로 미리 등록해 두어
+     * 완료 즉시(완료시키는 스레드에서) 자원을 얻고, leader는 onDone에서 자신의 참조를 반환합니다.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> call, Consumer<V> onDone, Executor executor) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            executor.execute(() -> {
+                V result;
+                try {
+                    result = call.get();
+                    mine.complete(result);
+                } catch (Throwable e) {
+                    mine.completeExceptionally(e);
+                    // 일반 예외는 future로만 전달하고, Error는 실행 스레드에도 그대로 전파
+                    if (e instanceof Error error) {
+                        throw error;
+                    }
+                    return;
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+                onDone.accept(result);
+            });
+        } catch (RuntimeException e) {
+            // executor가 거절한 경우 (종료 중 등)
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine.copy();
+    }
+
+    // 현재 진행 중인 호출 수
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.opensource.kemini_backend.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없는 토큰 버킷 (스레드 안전)
+ *
+ * - capacity개까지 몰아서 허용(burst)하고, 이후에는 초당 refillPerSecond개씩 보충
+ * - 상태는 "버킷이 다시 가득 차는 시각" 하나(long)로만 표현하고 CAS로 갱신 (GCRA와 동일한 방식)
+ *   → 버킷 하나당 AtomicLong 하나, 남은 토큰 수/마지막 보충 시각을 따로 둘 필요 없음
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+
+    // 이론상 다음 요청이 도착해야 하는 시각 (System.nanoTime 기준)
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = nanosPerToken * Math.max(1L, capacity);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 토큰 하나를 사용합니다.
+     *
+     * @return 0이면 허용, 양수면 다음 토큰이 생길 때까지 기다려야 하는 시간(나노초)
+     */
+    public long tryConsume() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + nanosPerToken;
+            long overflow = next - now - burstNanos;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0L;
+            }
+        }
+    }
+}
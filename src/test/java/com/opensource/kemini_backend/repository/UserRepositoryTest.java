@@ -0,0 +1,125 @@
+package com.opensource.kemini_backend.repository;
+
+import com.opensource.kemini_backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 보안 질문 기반 조회가 users 인덱스를 타는지 확인 (H2 실행 계획)
+ * 리포지토리 메서드를 실제로 호출해 Hibernate가 만든 SQL을 가로챈 뒤 그 SQL을 EXPLAIN
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.opensource.kemini_backend.repository.UserRepositoryTest$SqlCapture"
+})
+class UserRepositoryTest {
+
+    // Hibernate가 실행하는 SQL 기록 (Hibernate가 클래스 이름으로 생성)
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    private static final String PHONE = "+821012340007";
+    private static final String EMAIL = "user7@example.com";
+    private static final String ANSWER_HASH = "a".repeat(64);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 200; i++) {
+            userRepository.save(User.builder()
+                .email("user" + i + "@example.com")
+                .name("user" + i)
+                .phoneNumber(String.format("+8210123400%02d", i % 100))
+                .askId((long) (i % 8) + 1)
+                .askAnswerHash(i == 7 ? ANSWER_HASH : String.format("%064d", i))
+                .status("CONFIRMED")
+                .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.execute("ANALYZE");
+        SqlCapture.statements.clear();
+    }
+
+    @Test
+    void findEmailBySecurityAnswer_returnsMatchingEmail() {
+        assertThat(userRepository.findEmailBySecurityAnswer(PHONE, 8L, ANSWER_HASH)).contains(EMAIL);
+        assertThat(userRepository.findEmailBySecurityAnswer(PHONE, 8L, "b".repeat(64))).isEmpty();
+    }
+
+    @Test
+    void existsByEmailAndAskIdAndAskAnswerHash_matchesOnlyExactAnswer() {
+        assertThat(userRepository.existsByEmailAndAskIdAndAskAnswerHash(EMAIL, 8L, ANSWER_HASH)).isTrue();
+        assertThat(userRepository.existsByEmailAndAskIdAndAskAnswerHash(EMAIL, 1L, ANSWER_HASH)).isFalse();
+    }
+
+    @Test
+    void phoneLookups_useCompositePhoneIndex() {
+        userRepository.findEmailBySecurityAnswer(PHONE, 8L, ANSWER_HASH);
+        String findEmailPlan = explainLastQuery(PHONE, 8L, ANSWER_HASH);
+
+        userRepository.findAskIdByPhoneNumber(PHONE);
+        String findAskIdPlan = explainLastQuery(PHONE);
+
+        assertThat(findEmailPlan).contains("idx_users_phone_answer").doesNotContain("tablescan");
+        assertThat(findAskIdPlan).contains("idx_users_phone_answer").doesNotContain("tablescan");
+    }
+
+    @Test
+    void emailAnswerLookup_usesIndex() {
+        userRepository.existsByEmailAndAskIdAndAskAnswerHash(EMAIL, 8L, ANSWER_HASH);
+        String plan = explainLastQuery(EMAIL, 8L, ANSWER_HASH);
+
+        // 이메일 고유 인덱스와 idx_users_email_answer 중 어느 쪽이든 인덱스 조회여야 함
+        assertThat(plan).doesNotContain("tablescan").containsPattern("public\\.\\S+: email = ");
+    }
+
+    // 마지막으로 실행된 SELECT를 같은 파라미터로 EXPLAIN
+    // (exists 조회처럼 Hibernate가 행 수 제한을 파라미터로 붙이면 남는 자리는 1로 채움)
+    private String explainLastQuery(Object... args) {
+        String sql = SqlCapture.statements.stream()
+            .filter(statement -> statement.toLowerCase(Locale.ROOT).startsWith("select"))
+            .reduce((first, second) -> second)
+            .orElseThrow(() -> new AssertionError("실행된 SELECT가 없습니다."));
+
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+        assertThat(placeholders).isGreaterThanOrEqualTo(args.length);
+        List<Object> params = new ArrayList<>(Arrays.asList(args));
+        while (params.size() < placeholders) {
+            params.add(1);
+        }
+
+        List<String> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params.toArray());
+        return String.join("\n", rows).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,179 @@
+package com.opensource.kemini_backend.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Access Token 로컬 검증 (서명, iss/client_id/token_use, 만료, 알고리즘, 키 로테이션)
+ * auth.jwt.jwks-location에 해당하는 로컬 JWKS 파일에 테스트용 공개키를 두고 직접 서명한 토큰으로 확인
+ */
+class CognitoAccessTokenVerifierTest {
+
+    private static final String ISSUER = "https://cognito-idp.ap-northeast-2.amazonaws.com/ap-northeast-2_test";
+    private static final String CLIENT_ID = "test-client";
+
+    private static RSAKey signingKey;
+    private static RSAKey rotatedKey;
+    private static RSAKey otherKeyWithSameKid;
+
+    @TempDir
+    Path dir;
+
+    private Path jwksFile;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        otherKeyWithSameKid = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwksFile = dir.resolve("jwks.json");
+        publish(signingKey);
+    }
+
+    @Test
+    void validToken_isAccepted() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256, claims().build())))
+            .get()
+            .extracting(verified -> verified.getClaim("username"))
+            .isEqualTo("user@example.com");
+    }
+
+    @Test
+    void badSignature_isRejected() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+
+        // 같은 kid를 쓰는 다른 키로 서명
+        assertThat(verifier.verify(sign(otherKeyWithSameKid, JWSAlgorithm.RS256, claims().build()))).isEmpty();
+
+        // 서명 이후 payload 변조
+        String[] parts = sign(signingKey, JWSAlgorithm.RS256, claims().build()).split("\\.");
+        String tampered = sign(signingKey, JWSAlgorithm.RS256, claims().claim("username", "admin@example.com").build())
+            .split("\\.")[1];
+        assertThat(verifier.verify(parts[0] + "." + tampered + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    void wrongIssuerClientOrTokenUse_isRejected() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256,
+            claims().issuer("https://cognito-idp.ap-northeast-2.amazonaws.com/other-pool").build()))).isEmpty();
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256,
+            claims().claim("client_id", "other-client").build()))).isEmpty();
+        // ID Token은 Access Token 자리에 쓸 수 없음
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256,
+            claims().claim("token_use", "id").build()))).isEmpty();
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256,
+            claims().claim("username", null).build()))).isEmpty();
+    }
+
+    @Test
+    void expiredToken_isRejected() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+
+        // 허용 시계 오차(60초)를 넘겨 만료
+        JWTClaimsSet expired = claims()
+            .issueTime(Date.from(Instant.now().minusSeconds(3600)))
+            .expirationTime(Date.from(Instant.now().minusSeconds(300)))
+            .build();
+
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS256, expired))).isEmpty();
+    }
+
+    @Test
+    void algorithmOtherThanRs256_isRejected() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+
+        // 공개키와 같은 kid로 HMAC 서명 (알고리즘 혼동 공격)
+        JWSSigner hmac = new MACSigner(new byte[32]);
+        SignedJWT hmacToken = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("key-1").build(), claims().build());
+        hmacToken.sign(hmac);
+        assertThat(verifier.verify(hmacToken.serialize())).isEmpty();
+
+        // 같은 RSA 키라도 RS256이 아니면 거부
+        assertThat(verifier.verify(sign(signingKey, JWSAlgorithm.RS512, claims().build()))).isEmpty();
+    }
+
+    @Test
+    void unknownKid_refreshesJwksOnce() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(0);
+        publish(signingKey, rotatedKey);
+
+        // 메모리에 없는 kid → JWKS를 다시 읽어 새 키로 검증
+        assertThat(verifier.verify(sign(rotatedKey, JWSAlgorithm.RS256, claims().build()))).isPresent();
+    }
+
+    @Test
+    void unknownKid_refreshRespectsMinimumInterval() throws Exception {
+        CognitoAccessTokenVerifier verifier = verifier(60_000);
+        publish(signingKey, rotatedKey);
+
+        // 방금 읽었으므로 최소 간격이 지나기 전에는 다시 읽지 않음 (모르는 kid로 JWKS 조회를 유발하는 요청 방지)
+        assertThat(verifier.verify(sign(rotatedKey, JWSAlgorithm.RS256, claims().build()))).isEmpty();
+    }
+
+    // 서버 시작 시처럼 JWKS를 한 번 읽어 둔 검증기
+    private CognitoAccessTokenVerifier verifier(long minRefreshIntervalMillis) {
+        CognitoJwksProvider provider = new CognitoJwksProvider(
+            new DefaultResourceLoader(), jwksFile.toUri().toString(), minRefreshIntervalMillis);
+        provider.refresh();
+        return new CognitoAccessTokenVerifier(provider, ISSUER, CLIENT_ID);
+    }
+
+    // JWKS 파일에는 공개키만 기록
+    private void publish(RSAKey... keys) throws Exception {
+        List<JWK> publicKeys = new ArrayList<>();
+        for (RSAKey key : keys) {
+            publicKeys.add(key.toPublicJWK());
+        }
+        Files.writeString(jwksFile, new JWKSet(publicKeys).toString());
+    }
+
+    private static JWTClaimsSet.Builder claims() {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+            .issuer(ISSUER)
+            .subject("sub-1")
+            .claim("client_id", CLIENT_ID)
+            .claim("token_use", "access")
+            .claim("username", "user@example.com")
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plusSeconds(3600)));
+    }
+
+    private static String sign(RSAKey key, JWSAlgorithm algorithm, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
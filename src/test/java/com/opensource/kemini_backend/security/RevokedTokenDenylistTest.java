@@ -0,0 +1,27 @@
+package com.opensource.kemini_backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 사용자 단위 무효화 (iat 초 단위 비교)
+ */
+class RevokedTokenDenylistTest {
+
+    private final RevokedTokenDenylist denylist = new RevokedTokenDenylist(new SimpleMeterRegistry(), 1000, 60_000);
+
+    @Test
+    void revokeUser_rejectsTokensFromEarlierSecondsOnly() {
+        long before = System.currentTimeMillis();
+        denylist.revokeUser("user@example.com");
+        long after = System.currentTimeMillis();
+
+        assertThat(denylist.isRevoked("user@example.com", before - 1000)).isTrue();
+        // 무효화 직후 같은 초에 다시 로그인해 받은 토큰(iat은 초 단위)은 통과
+        assertThat(denylist.isRevoked("user@example.com", after / 1000 * 1000)).isFalse();
+        assertThat(denylist.isRevoked("user@example.com", after + 1000)).isFalse();
+        assertThat(denylist.isRevoked("other@example.com", before - 1000)).isFalse();
+    }
+}
@@ -0,0 +1,157 @@
+package com.opensource.kemini_backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AI 백엔드 라우팅 (최소 진행 요청 + 응답 시간 가중치, 연속 실패 시 제외, 헬스 체크로 복귀)
+ * 로컬 스텁 서버 두 대의 /health 응답 코드를 바꿔 가며 확인
+ */
+class AIBackendRouterTest {
+
+    private HttpServer first;
+    private HttpServer second;
+    private final AtomicInteger firstHealthStatus = new AtomicInteger(200);
+    private final AtomicInteger secondHealthStatus = new AtomicInteger(200);
+
+    private CloseableHttpClient httpClient;
+    private AIBackendRouter router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        first = startStub(firstHealthStatus);
+        second = startStub(secondHealthStatus);
+        httpClient = HttpClients.createDefault();
+        router = new AIBackendRouter(httpClient, new SimpleMeterRegistry(),
+            new String[] { urlOf(first), urlOf(second) }, 3, "/health", 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.stop(0);
+        second.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    void acquire_prefersBackendWithFewestOutstandingRequests() {
+        AIBackendRouter.Lease a = router.acquire(null);
+        AIBackendRouter.Lease b = router.acquire(null);
+
+        assertThat(a.backend()).isNotSameAs(b.backend());
+        assertThat(a.backend().outstanding()).isEqualTo(1);
+        assertThat(b.backend().outstanding()).isEqualTo(1);
+
+        a.succeeded();
+        assertThat(a.backend().outstanding()).isZero();
+    }
+
+    @Test
+    void acquire_weightsByObservedLatency() throws Exception {
+        AIBackendRouter.Lease slow = router.acquire(null);
+        AIBackendRouter.Lease fast = router.acquire(null);
+        fast.succeeded();
+        Thread.sleep(50);
+        slow.succeeded();
+
+        // 진행 중 요청이 없으면 응답이 빨랐던 백엔드 선택
+        AIBackendRouter.Lease next = router.acquire(null);
+        assertThat(next.backend()).isSameAs(fast.backend());
+
+        // 빠른 백엔드가 바빠도 (1+1)×빠른 응답시간 < 느린 응답시간이면 계속 빠른 쪽
+        AIBackendRouter.Lease another = router.acquire(null);
+        assertThat(another.backend()).isSameAs(fast.backend());
+    }
+
+    @Test
+    void unmeasuredBackend_isScoredAtMeanOfKnownLatencies() throws Exception {
+        AIBackendRouter.Lease measured = router.acquire(null);
+        AIBackendRouter.Lease pending = router.acquire(null);
+        Thread.sleep(20);
+        measured.succeeded();
+
+        // 응답 시간을 모르는 백엔드를 1ms로 치면 진행 중 요청이 있어도 계속 몰림
+        // 평균으로 치면 (1+1)×평균 > 1×측정값 이므로 측정된 백엔드 선택
+        AIBackendRouter.Lease next = router.acquire(null);
+        assertThat(next.backend()).isSameAs(measured.backend());
+        assertThat(pending.backend().outstanding()).isEqualTo(1);
+    }
+
+    @Test
+    void consecutiveFailures_ejectBackendUntilHealthProbeSucceeds() {
+        AIBackendRouter.Backend failing = router.backends().get(0);
+        AIBackendRouter.Backend healthy = router.backends().get(1);
+        for (int i = 0; i < 3; i++) {
+            router.acquire(healthy).failed();
+        }
+        assertThat(failing.isHealthy()).isFalse();
+
+        // 제외된 동안에는 다른 백엔드로만 라우팅
+        for (int i = 0; i < 5; i++) {
+            AIBackendRouter.Lease lease = router.acquire(null);
+            assertThat(lease.backend()).isNotSameAs(failing);
+            lease.succeeded();
+        }
+
+        // 헬스 체크 실패 → 계속 제외
+        firstHealthStatus.set(503);
+        router.probeEjected();
+        assertThat(failing.isHealthy()).isFalse();
+
+        // 헬스 체크 성공 → 복귀
+        firstHealthStatus.set(200);
+        router.probeEjected();
+        assertThat(failing.isHealthy()).isTrue();
+    }
+
+    @Test
+    void acquire_fallsBackToEjectedBackendsWhenNoneAreHealthy() {
+        AIBackendRouter.Backend only = router.backends().get(0);
+        AIBackendRouter.Backend excluded = router.backends().get(1);
+        for (int i = 0; i < 3; i++) {
+            router.acquire(excluded).failed();
+        }
+        assertThat(only.isHealthy()).isFalse();
+
+        // 남은 백엔드가 모두 제외 상태면 그대로 시도하고, 성공하면 바로 복귀
+        AIBackendRouter.Lease lease = router.acquire(excluded);
+        assertThat(lease.backend()).isSameAs(only);
+        lease.succeeded();
+        assertThat(only.isHealthy()).isTrue();
+    }
+
+    @Test
+    void acquire_failsWhenNoBackendIsLeft() {
+        AIBackendRouter single = new AIBackendRouter(httpClient, new SimpleMeterRegistry(),
+            new String[] { urlOf(first) }, 3, "/health", 1000);
+
+        assertThatThrownBy(() -> single.acquire(single.backends().get(0)))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("사용 가능한 AI 서버가 없습니다");
+    }
+
+    private static HttpServer startStub(AtomicInteger healthStatus) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/health", exchange -> {
+            exchange.sendResponseHeaders(healthStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static String urlOf(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/generate";
+    }
+}
@@ -0,0 +1,151 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.model.AccountPurgeJob;
+import com.opensource.kemini_backend.model.AccountPurgeJob.Status;
+import com.opensource.kemini_backend.model.User;
+import com.opensource.kemini_backend.repository.AccountPurgeJobRepository;
+import com.opensource.kemini_backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 탈퇴 데이터 정리 작업의 선점/재실행과 재시도 한도
+ * S3는 메모리 구현(InMemoryS3Client), DB는 H2 사용
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class AccountPurgeServiceTest {
+
+    private static final long RETRY_BACKOFF_MS = 60_000;
+    private static final long STALE_AFTER_MS = 600_000;
+
+    @Autowired
+    private AccountPurgeJobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryS3Client s3Client = new InMemoryS3Client();
+    private SimpleMeterRegistry meterRegistry;
+    private AccountPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeService = new AccountPurgeService(
+            jobRepository,
+            new S3Service(null, s3Client, "test-bucket", "ap-northeast-2"),
+            jdbcTemplate,
+            new TransactionTemplate(transactionManager),
+            event -> { },
+            Runnable::run,
+            meterRegistry,
+            2, RETRY_BACKOFF_MS, 600_000, STALE_AFTER_MS);
+    }
+
+    @Test
+    void resumePending_runsDueJobToCompletion() {
+        User user = saveUser("purge@example.com");
+        s3Client.keys.add("users/" + user.getId() + "/a.dat");
+        s3Client.keys.add("users/" + user.getId() + "/b.dat");
+        AccountPurgeJob job = saveJob(user, Status.PENDING, Instant.now());
+
+        purgeService.resumePending();
+
+        AccountPurgeJob done = reload(job);
+        assertThat(done.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(done.getObjectsDeleted()).isEqualTo(2);
+        assertThat(s3Client.keys).isEmpty();
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    @Test
+    void resumePending_skipsJobRunningElsewhere_andReclaimsStaleOne() {
+        User active = saveUser("active@example.com");
+        AccountPurgeJob running = saveJob(active, Status.RUNNING, Instant.now());
+        User crashed = saveUser("crashed@example.com");
+        AccountPurgeJob stale = saveJob(crashed, Status.RUNNING, Instant.now().minusMillis(STALE_AFTER_MS + 1000));
+
+        purgeService.resumePending();
+
+        // 최근에 갱신된 실행 중 작업은 다른 인스턴스가 처리 중이므로 건드리지 않음
+        assertThat(reload(running).getStatus()).isEqualTo(Status.RUNNING);
+        assertThat(userRepository.findById(active.getId())).isPresent();
+        // 오래 갱신되지 않은 작업은 중단된 것으로 보고 다시 실행
+        assertThat(reload(stale).getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(userRepository.findById(crashed.getId())).isEmpty();
+    }
+
+    @Test
+    void failures_backOffThenAbandonAndReleaseEmail() {
+        User user = saveUser("stuck@example.com");
+        s3Client.keys.add("users/" + user.getId() + "/locked.dat");
+        s3Client.failingKeys.add("users/" + user.getId() + "/locked.dat");
+        AccountPurgeJob job = saveJob(user, Status.PENDING, Instant.now());
+
+        Instant before = Instant.now();
+        purgeService.resumePending();
+
+        AccountPurgeJob failed = reload(job);
+        assertThat(failed.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(before.plusMillis(RETRY_BACKOFF_MS));
+
+        // 재시도 시각 전에는 실행하지 않음
+        purgeService.resumePending();
+        assertThat(reload(job).getAttempts()).isEqualTo(1);
+
+        // 두 번째 실패(max-attempts=2) → ABANDONED, 이메일을 풀어 다시 가입 가능
+        failed.setNextAttemptAt(Instant.now().minusSeconds(1));
+        jobRepository.saveAndFlush(failed);
+        purgeService.resumePending();
+
+        AccountPurgeJob abandoned = reload(job);
+        assertThat(abandoned.getStatus()).isEqualTo(Status.ABANDONED);
+        assertThat(abandoned.getAttempts()).isEqualTo(2);
+        assertThat(userRepository.findByEmail("stuck@example.com")).isEmpty();
+        assertThat(userRepository.findById(user.getId())).get()
+            .extracting(User::getStatus).isEqualTo("PURGE_FAILED");
+        assertThat(meterRegistry.counter("account-purge.abandoned").count()).isEqualTo(1);
+
+        // 더 이상 자동으로 실행하지 않음
+        purgeService.resumePending();
+        assertThat(reload(job).getAttempts()).isEqualTo(2);
+    }
+
+    private User saveUser(String email) {
+        return userRepository.saveAndFlush(User.builder().email(email).name("탈퇴").status("DELETING").build());
+    }
+
+    private AccountPurgeJob saveJob(User user, Status status, Instant updatedAt) {
+        AccountPurgeJob job = new AccountPurgeJob(user.getId(), user.getEmail());
+        job.setStatus(status);
+        job.setUpdatedAt(updatedAt);
+        return jobRepository.saveAndFlush(job);
+    }
+
+    // 벌크 update/delete 결과를 읽기 위해 영속성 컨텍스트를 비우고 다시 조회
+    private AccountPurgeJob reload(AccountPurgeJob job) {
+        entityManager.clear();
+        return jobRepository.findById(job.getId()).orElseThrow();
+    }
+}
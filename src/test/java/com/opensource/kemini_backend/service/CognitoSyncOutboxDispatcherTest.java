@@ -0,0 +1,216 @@
+package com.opensource.kemini_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opensource.kemini_backend.config.AwsCognitoConfig;
+import com.opensource.kemini_backend.model.CognitoSyncOutbox;
+import com.opensource.kemini_backend.model.CognitoSyncOutbox.Status;
+import com.opensource.kemini_backend.repository.CognitoSyncOutboxRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cognito 속성 동기화 outbox (변경 합치기 순서, 실패 시 백오프/dead letter, 버림, 선점)
+ * aws.cognito.endpoint를 로컬 Cognito 스텁 서버로 지정하고, outbox 테이블은 H2 사용
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class CognitoSyncOutboxDispatcherTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long INITIAL_BACKOFF_MS = 60_000;
+
+    @Autowired
+    private CognitoSyncOutboxRepository outboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private HttpServer cognitoStub;
+    // AdminUpdateUserAttributes 요청 본문
+    private final List<JsonNode> updates = new CopyOnWriteArrayList<>();
+    // 사용자별로 돌려줄 Cognito 오류 (__type)
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
+
+    private CognitoIdentityProviderClient cognitoClient;
+    private SimpleMeterRegistry meterRegistry;
+    private CognitoSyncOutboxDispatcher dispatcher;
+
+    @BeforeAll
+    static void fakeCredentials() {
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+    }
+
+    @AfterAll
+    static void clearCredentials() {
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretAccessKey");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cognitoStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cognitoStub.createContext("/", this::handleCognito);
+        cognitoStub.start();
+
+        AwsCognitoConfig config = new AwsCognitoConfig();
+        ReflectionTestUtils.setField(config, "region", "ap-northeast-2");
+        ReflectionTestUtils.setField(config, "endpoint", "http://127.0.0.1:" + cognitoStub.getAddress().getPort());
+        cognitoClient = config.cognitoClient();
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new CognitoSyncOutboxDispatcher(
+            cognitoClient, outboxRepository, meterRegistry, 100, INITIAL_BACKOFF_MS, 600_000, 2, 60_000);
+        ReflectionTestUtils.setField(dispatcher, "userPoolId", "ap-northeast-2_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        cognitoClient.close();
+        cognitoStub.stop(0);
+    }
+
+    @Test
+    void pendingChanges_areMergedInOrderIntoOneUpdate() {
+        save(new CognitoSyncOutbox("a@example.com", "첫 이름", null));
+        save(new CognitoSyncOutbox("a@example.com", null, "+821011112222"));
+        save(new CognitoSyncOutbox("a@example.com", "마지막 이름", null));
+
+        dispatcher.dispatch();
+
+        assertThat(updates).hasSize(1);
+        assertThat(attributes(updates.get(0)))
+            .containsEntry("name", "마지막 이름")
+            .containsEntry("phone_number", "+821011112222");
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(meterRegistry.counter("cognito.outbox.collapsed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void failure_backsOffThenDeadLettersAfterMaxAttempts() {
+        errors.put("b@example.com", "NotAuthorizedException");
+        CognitoSyncOutbox entry = save(new CognitoSyncOutbox("b@example.com", "이름", null));
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        CognitoSyncOutbox retried = reload(entry);
+        assertThat(retried.getStatus()).isEqualTo(Status.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfterOrEqualTo(before.plusMillis(INITIAL_BACKOFF_MS));
+        assertThat(retried.getClaimToken()).isNull();
+
+        // 재시도 시각 전에는 다시 보내지 않음
+        dispatcher.dispatch();
+        assertThat(updates).hasSize(1);
+
+        // 두 번째 실패(max-attempts=2) → FAILED로 남기고 더 이상 처리하지 않음
+        retried.setNextAttemptAt(Instant.now().minusSeconds(1));
+        save(retried);
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        CognitoSyncOutbox failed = reload(entry);
+        assertThat(failed.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(updates).hasSize(2);
+        assertThat(meterRegistry.counter("cognito.outbox.dead-lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingUser_isDropped_invalidValue_isDeadLettered() {
+        errors.put("gone@example.com", "UserNotFoundException");
+        errors.put("invalid@example.com", "InvalidParameterException");
+        save(new CognitoSyncOutbox("gone@example.com", "이름", null));
+        CognitoSyncOutbox invalid = save(new CognitoSyncOutbox("invalid@example.com", null, "+82abc"));
+
+        dispatcher.dispatch();
+
+        assertThat(outboxRepository.findAll()).extracting(CognitoSyncOutbox::getEmail).containsExactly("invalid@example.com");
+        assertThat(reload(invalid).getStatus()).isEqualTo(Status.FAILED);
+        assertThat(meterRegistry.counter("cognito.outbox.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cognito.outbox.dead-lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void changesBehindAnotherDispatchersLease_waitForIt() {
+        // 다른 dispatcher가 이전 변경을 처리 중
+        CognitoSyncOutbox older = new CognitoSyncOutbox("c@example.com", "이전 이름", null);
+        older.setClaimToken("other-dispatcher");
+        older.setLeaseUntil(Instant.now().plusSeconds(60));
+        save(older);
+        CognitoSyncOutbox newer = save(new CognitoSyncOutbox("c@example.com", "새 이름", null));
+
+        dispatcher.dispatch();
+
+        // 새 변경을 먼저 보내면 이전 값이 나중에 덮어쓸 수 있으므로 보내지 않고 미룸
+        assertThat(updates).isEmpty();
+        CognitoSyncOutbox deferred = reload(newer);
+        assertThat(deferred.getClaimToken()).isNull();
+        assertThat(deferred.getAttempts()).isZero();
+        assertThat(deferred.getNextAttemptAt()).isAfter(Instant.now());
+    }
+
+    private CognitoSyncOutbox save(CognitoSyncOutbox entry) {
+        return outboxRepository.saveAndFlush(entry);
+    }
+
+    // 벌크 update 결과를 읽기 위해 영속성 컨텍스트를 비우고 다시 조회
+    private CognitoSyncOutbox reload(CognitoSyncOutbox entry) {
+        entityManager.clear();
+        return outboxRepository.findById(entry.getId()).orElseThrow();
+    }
+
+    private static Map<String, String> attributes(JsonNode request) {
+        Map<String, String> attributes = new HashMap<>();
+        request.path("UserAttributes").forEach(attribute ->
+            attributes.put(attribute.path("Name").asText(), attribute.path("Value").asText()));
+        return attributes;
+    }
+
+    // Cognito JSON 프로토콜 (X-Amz-Target으로 작업 구분)
+    private void handleCognito(HttpExchange exchange) throws IOException {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        JsonNode body = MAPPER.readTree(exchange.getRequestBody().readAllBytes());
+
+        int status = 200;
+        String response = "{}";
+        if (target.endsWith(".AdminUpdateUserAttributes")) {
+            updates.add(body);
+            String error = errors.get(body.path("Username").asText());
+            if (error != null) {
+                status = 400;
+                response = "{\"__type\":\"" + error + "\",\"message\":\"stub\"}";
+            }
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
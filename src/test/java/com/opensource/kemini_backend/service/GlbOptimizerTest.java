@@ -0,0 +1,211 @@
+package com.opensource.kemini_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.opensource.kemini_backend.utility.Glb;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GLB 최적화 단계 (prune / dedupe / quantize)와 지원하지 않는 파일의 원본 반환
+ * 작은 GLB를 직접 만들어 결과 JSON과 BIN을 확인
+ */
+class GlbOptimizerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GlbOptimizer optimizer;
+
+    @AfterEach
+    void tearDown() {
+        if (optimizer != null) {
+            optimizer.shutdown();
+        }
+    }
+
+    @Test
+    void prune_removesUnusedAccessorAndItsBufferView() throws Exception {
+        optimizer = optimizer(false);
+        byte[] bin = floats(0, 0, 0, 1, 1, 1);
+        byte[] model = glb("""
+            {
+              "asset": {"version": "2.0"},
+              "buffers": [{"byteLength": 24}],
+              "bufferViews": [
+                {"buffer": 0, "byteOffset": 0, "byteLength": 12},
+                {"buffer": 0, "byteOffset": 12, "byteLength": 12}
+              ],
+              "accessors": [
+                {"bufferView": 0, "componentType": 5126, "count": 1, "type": "VEC3"},
+                {"bufferView": 1, "componentType": 5126, "count": 1, "type": "VEC3"}
+              ],
+              "meshes": [{"primitives": [{"attributes": {"POSITION": 0}}]}]
+            }
+            """, bin);
+
+        Glb result = Glb.parse(optimizer.optimize(model));
+
+        assertThat(result.json().get("accessors")).hasSize(1);
+        assertThat(result.json().get("bufferViews")).hasSize(1);
+        assertThat(result.bin()).isEqualTo(Arrays.copyOf(bin, 12));
+        assertThat(result.json().at("/buffers/0/byteLength").asInt()).isEqualTo(12);
+    }
+
+    @Test
+    void dedupe_mergesBufferViewsWithSameContent() throws Exception {
+        optimizer = optimizer(false);
+        byte[] bin = floats(0, 0, 1, 0, 0, 1);
+        byte[] model = glb("""
+            {
+              "asset": {"version": "2.0"},
+              "buffers": [{"byteLength": 24}],
+              "bufferViews": [
+                {"buffer": 0, "byteOffset": 0, "byteLength": 12},
+                {"buffer": 0, "byteOffset": 12, "byteLength": 12}
+              ],
+              "accessors": [
+                {"bufferView": 0, "componentType": 5126, "count": 1, "type": "VEC3", "min": [0, 0, 1], "max": [0, 0, 1]},
+                {"bufferView": 1, "componentType": 5126, "count": 1, "type": "VEC3"}
+              ],
+              "meshes": [{"primitives": [{"attributes": {"POSITION": 0, "NORMAL": 1}}]}]
+            }
+            """, bin);
+
+        Glb result = Glb.parse(optimizer.optimize(model));
+
+        assertThat(result.json().get("bufferViews")).hasSize(1);
+        assertThat(result.json().get("accessors")).hasSize(2);
+        assertThat(result.json().at("/accessors/0/bufferView").asInt()).isZero();
+        assertThat(result.json().at("/accessors/1/bufferView").asInt()).isZero();
+        assertThat(result.bin()).hasSize(12);
+    }
+
+    @Test
+    void prune_remapsImageBufferView() throws Exception {
+        optimizer = optimizer(false);
+        byte[] image = { (byte) 0x89, 'P', 'N', 'G', 1, 2, 3, 4 };
+        byte[] bin = new byte[20];
+        System.arraycopy(floats(9, 9, 9), 0, bin, 0, 12);
+        System.arraycopy(image, 0, bin, 12, image.length);
+        byte[] model = glb("""
+            {
+              "asset": {"version": "2.0"},
+              "buffers": [{"byteLength": 20}],
+              "bufferViews": [
+                {"buffer": 0, "byteOffset": 0, "byteLength": 12},
+                {"buffer": 0, "byteOffset": 12, "byteLength": 8}
+              ],
+              "images": [{"bufferView": 1, "mimeType": "image/png"}],
+              "textures": [{"source": 0}]
+            }
+            """, bin);
+
+        Glb result = Glb.parse(optimizer.optimize(model));
+
+        assertThat(result.json().get("bufferViews")).hasSize(1);
+        assertThat(result.json().at("/images/0/bufferView").asInt()).isZero();
+        JsonNode view = result.json().at("/bufferViews/0");
+        int offset = view.path("byteOffset").asInt();
+        assertThat(Arrays.copyOfRange(result.bin(), offset, offset + view.path("byteLength").asInt())).isEqualTo(image);
+    }
+
+    @Test
+    void quantize_encodesNormalsAsPaddedBytesAndRequiresExtension() throws Exception {
+        optimizer = optimizer(true);
+        // 정점 16개: POSITION 192바이트 + NORMAL 192바이트 (NORMAL은 64바이트로 줄어듦)
+        int count = 16;
+        ByteBuffer bin = ByteBuffer.allocate(count * 24).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++) {
+            bin.putFloat(i / (float) count).putFloat(0).putFloat(0);
+        }
+        for (int i = 0; i < count; i++) {
+            bin.putFloat(0).putFloat(i % 2).putFloat(1 - i % 2);
+        }
+        byte[] model = glb("""
+            {
+              "asset": {"version": "2.0"},
+              "buffers": [{"byteLength": 384}],
+              "bufferViews": [
+                {"buffer": 0, "byteOffset": 0, "byteLength": 192, "target": 34962},
+                {"buffer": 0, "byteOffset": 192, "byteLength": 192, "target": 34962}
+              ],
+              "accessors": [
+                {"bufferView": 0, "componentType": 5126, "count": 16, "type": "VEC3", "min": [0, 0, 0], "max": [1, 0, 0]},
+                {"bufferView": 1, "componentType": 5126, "count": 16, "type": "VEC3"}
+              ],
+              "meshes": [{"primitives": [{"attributes": {"POSITION": 0, "NORMAL": 1}}]}]
+            }
+            """, bin.array());
+
+        Glb result = Glb.parse(optimizer.optimize(model));
+
+        JsonNode normal = result.json().at("/accessors/1");
+        assertThat(normal.path("componentType").asInt()).isEqualTo(5120);
+        assertThat(normal.path("normalized").asBoolean()).isTrue();
+        JsonNode view = result.json().at("/bufferViews/" + normal.path("bufferView").asInt());
+        assertThat(view.path("byteStride").asInt()).isEqualTo(4);
+        assertThat(view.path("byteLength").asInt()).isEqualTo(count * 4);
+        int offset = view.path("byteOffset").asInt();
+        assertThat(Arrays.copyOfRange(result.bin(), offset, offset + 8)).containsExactly(0, 0, 127, 0, 0, 127, 0, 0);
+
+        assertThat(result.json().get("extensionsUsed")).extracting(JsonNode::asText).contains("KHR_mesh_quantization");
+        assertThat(result.json().get("extensionsRequired")).extracting(JsonNode::asText).contains("KHR_mesh_quantization");
+        // POSITION은 그대로
+        assertThat(result.json().at("/accessors/0/componentType").asInt()).isEqualTo(5126);
+    }
+
+    @Test
+    void optimize_returnsInputForUnsupportedExtension() throws Exception {
+        optimizer = optimizer(true);
+        byte[] model = glb("""
+            {
+              "asset": {"version": "2.0"},
+              "extensionsUsed": ["KHR_draco_mesh_compression"],
+              "buffers": [{"byteLength": 24}],
+              "bufferViews": [
+                {"buffer": 0, "byteOffset": 0, "byteLength": 12},
+                {"buffer": 0, "byteOffset": 12, "byteLength": 12}
+              ],
+              "accessors": [
+                {"bufferView": 0, "componentType": 5126, "count": 1, "type": "VEC3"},
+                {"bufferView": 1, "componentType": 5126, "count": 1, "type": "VEC3"}
+              ],
+              "meshes": [{"primitives": [{"attributes": {"POSITION": 0}}]}]
+            }
+            """, floats(0, 0, 0, 1, 1, 1));
+
+        assertThat(optimizer.optimize(model)).isSameAs(model);
+    }
+
+    @Test
+    void optimize_returnsInputForNonGlb() {
+        optimizer = optimizer(false);
+        byte[] model = "not a glb file at all".getBytes();
+
+        assertThat(optimizer.optimize(model)).isSameAs(model);
+    }
+
+    private static GlbOptimizer optimizer(boolean quantize) {
+        return new GlbOptimizer(new SimpleMeterRegistry(), true, 1 << 20, true, true, quantize, 1, 1);
+    }
+
+    private static byte[] glb(String json, byte[] bin) throws Exception {
+        return new Glb((ObjectNode) MAPPER.readTree(json), bin).write();
+    }
+
+    private static byte[] floats(float... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (float value : values) {
+            buffer.putFloat(value);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,73 @@
+package com.opensource.kemini_backend.service;
+
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 목록 조회(ListObjectsV2)와 일괄 삭제(DeleteObjects)만 흉내 내는 메모리 S3 (테스트용)
+ * continuation token은 마지막으로 돌려준 키를 그대로 사용
+ */
+class InMemoryS3Client implements S3Client {
+
+    final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    // 삭제 요청 시 실패로 응답할 키
+    final Set<String> failingKeys = new CopyOnWriteArraySet<>();
+    final AtomicInteger listCalls = new AtomicInteger();
+
+    @Override
+    public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+        listCalls.incrementAndGet();
+        String after = request.continuationToken();
+        NavigableSet<String> candidates = after == null ? keys : keys.tailSet(after, false);
+
+        List<S3Object> contents = new ArrayList<>();
+        String last = null;
+        for (String key : candidates) {
+            if (!key.startsWith(request.prefix())) {
+                continue;
+            }
+            if (contents.size() == request.maxKeys()) {
+                return ListObjectsV2Response.builder().contents(contents).isTruncated(true).nextContinuationToken(last).build();
+            }
+            contents.add(S3Object.builder().key(key).build());
+            last = key;
+        }
+        return ListObjectsV2Response.builder().contents(contents).isTruncated(false).build();
+    }
+
+    @Override
+    public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+        List<S3Error> errors = new ArrayList<>();
+        for (ObjectIdentifier object : request.delete().objects()) {
+            if (failingKeys.contains(object.key())) {
+                errors.add(S3Error.builder().key(object.key()).code("AccessDenied").build());
+            } else {
+                keys.remove(object.key());
+            }
+        }
+        return DeleteObjectsResponse.builder().errors(errors).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
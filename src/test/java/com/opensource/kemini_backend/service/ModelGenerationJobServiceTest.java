@@ -0,0 +1,235 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.dto.ModelJobDto;
+import com.opensource.kemini_backend.model.ModelGenerationJob;
+import com.opensource.kemini_backend.model.ModelGenerationJob.Status;
+import com.opensource.kemini_backend.repository.ModelGenerationJobRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI 모델 생성 비동기 작업 (등록 → 워커 실행, 일시적 오류 재시도, 재시작 시 재개, 만료 정리)
+ * AI 서버는 로컬 스텁 서버, 작업 테이블은 H2 사용
+ * 워커 스레드가 커밋된 작업을 읽어야 하므로 테스트 트랜잭션 없이 실행하고 끝나면 직접 정리
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ModelGenerationJobServiceTest {
+
+    private static final byte[] MODEL = "glTF-model-bytes".getBytes(StandardCharsets.US_ASCII);
+    private static final long RETENTION_MS = 60_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private ModelGenerationJobRepository jobRepository;
+
+    @TempDir
+    Path storageDir;
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer aiStub;
+    // AI 서버가 차례로 돌려줄 응답 코드 (비어 있으면 200 + MODEL)
+    private final Queue<Integer> aiStatuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger aiCalls = new AtomicInteger();
+
+    private CloseableHttpClient httpClient;
+    private ImageNormalizer imageNormalizer;
+    private GlbOptimizer glbOptimizer;
+    private AIService aiService;
+    private SimpleMeterRegistry meterRegistry;
+    private ModelGenerationJobService jobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        aiStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        aiStub.createContext("/generate", this::handleGenerate);
+        aiStub.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = HttpClients.createDefault();
+        AIBackendRouter router = new AIBackendRouter(httpClient, meterRegistry,
+            new String[] { "http://127.0.0.1:" + aiStub.getAddress().getPort() + "/generate" }, 3, "/health", 1000);
+        ModelResultCache modelCache = new ModelResultCache(
+            new InMemoryS3Client(), meterRegistry, Runnable::run, "test-bucket", cacheDir.toString(), 1 << 20, false);
+        imageNormalizer = new ImageNormalizer(meterRegistry, false, 1024, 0.9f, 524_288, 1, 4);
+        glbOptimizer = new GlbOptimizer(meterRegistry, false, 1 << 20, true, true, false, 1, 1);
+        aiService = new AIService(new RestTemplate(), modelCache, meterRegistry, router,
+            imageNormalizer, glbOptimizer, "1", 10_000, 2, 4, 1000);
+
+        jobService = new ModelGenerationJobService(jobRepository, aiService, meterRegistry,
+            storageDir.toString(), 2, 10, 60_000, RETENTION_MS, MAX_ATTEMPTS, 20, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobService.shutdown();
+        aiService.shutdown();
+        glbOptimizer.shutdown();
+        imageNormalizer.shutdown();
+        httpClient.close();
+        aiStub.stop(0);
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void submit_runsJobInBackgroundAndKeepsOnlyTheResult() throws Exception {
+        ModelJobDto submitted = jobService.submit(1L, image("cube.png", "cube"));
+
+        assertThat(submitted.status()).isEqualTo("QUEUED");
+        ModelGenerationJob done = awaitFinished(submitted.jobId());
+        assertThat(done.getStatus()).isEqualTo(Status.SUCCEEDED);
+        assertThat(done.getAttempts()).isEqualTo(1);
+        assertThat(done.getResultSize()).isEqualTo(MODEL.length);
+        assertThat(Files.readAllBytes(jobService.getResultFile(1L, submitted.jobId()))).isEqualTo(MODEL);
+        // 입력 이미지는 처리가 끝나면 삭제
+        assertThat(done.getInputPath()).isNull();
+        assertThat(storageDir.resolve(submitted.jobId() + ".input")).doesNotExist();
+    }
+
+    @Test
+    void transientFailure_isRetriedWithInputKept() throws Exception {
+        aiStatuses.add(503);
+
+        ModelJobDto submitted = jobService.submit(1L, image("retry.png", "retry"));
+
+        ModelGenerationJob done = awaitFinished(submitted.jobId());
+        assertThat(done.getStatus()).isEqualTo(Status.SUCCEEDED);
+        assertThat(done.getAttempts()).isEqualTo(2);
+        assertThat(done.getErrorMessage()).isNull();
+        assertThat(aiCalls).hasValue(2);
+        assertThat(meterRegistry.counter("ai.jobs.retries").count()).isEqualTo(1);
+    }
+
+    @Test
+    void transientFailure_failsAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            aiStatuses.add(503);
+        }
+
+        ModelJobDto submitted = jobService.submit(1L, image("down.png", "down"));
+
+        ModelGenerationJob done = awaitFinished(submitted.jobId());
+        assertThat(done.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(done.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(done.getErrorMessage()).contains("503");
+        assertThat(aiCalls).hasValue(MAX_ATTEMPTS);
+        assertThat(storageDir.resolve(submitted.jobId() + ".input")).doesNotExist();
+    }
+
+    @Test
+    void rejectedImage_failsWithoutRetry() throws Exception {
+        aiStatuses.add(400);
+
+        ModelJobDto submitted = jobService.submit(1L, image("bad.png", "bad"));
+
+        ModelGenerationJob done = awaitFinished(submitted.jobId());
+        assertThat(done.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(done.getAttempts()).isEqualTo(1);
+        assertThat(done.getErrorMessage()).contains("400");
+        assertThat(aiCalls).hasValue(1);
+        assertThat(storageDir.resolve(submitted.jobId() + ".input")).doesNotExist();
+    }
+
+    @Test
+    void resumeUnfinished_rerunsJobsWithInputAndFailsTheRest() throws Exception {
+        Path input = Files.write(storageDir.resolve("interrupted.input"), "interrupted".getBytes(StandardCharsets.UTF_8));
+        // 해시 없이 저장된 작업은 다시 실행할 때 입력 파일로 계산
+        ModelGenerationJob interrupted = saveJob(Status.RUNNING, input.toString(), Instant.now());
+        ModelGenerationJob lost = saveJob(Status.QUEUED, storageDir.resolve("missing.input").toString(), Instant.now());
+
+        jobService.resumeUnfinished();
+
+        ModelGenerationJob resumed = awaitFinished(interrupted.getId());
+        assertThat(resumed.getStatus()).isEqualTo(Status.SUCCEEDED);
+        assertThat(input).doesNotExist();
+        ModelGenerationJob failed = jobRepository.findById(lost.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(failed.getErrorMessage()).contains("서버 재시작");
+        assertThat(aiCalls).hasValue(1);
+    }
+
+    @Test
+    void cleanupExpired_deletesOldFinishedJobsWithTheirResultFiles() throws Exception {
+        Instant expired = Instant.now().minusMillis(RETENTION_MS + 1000);
+        Path oldResult = Files.write(storageDir.resolve("old.glb"), MODEL);
+        ModelGenerationJob old = saveJob(Status.SUCCEEDED, null, expired);
+        old.setResultPath(oldResult.toString());
+        jobRepository.save(old);
+        ModelGenerationJob recent = saveJob(Status.FAILED, null, Instant.now());
+        ModelGenerationJob waiting = saveJob(Status.QUEUED, null, expired);
+
+        jobService.cleanupExpired();
+
+        assertThat(jobRepository.findById(old.getId())).isEmpty();
+        assertThat(oldResult).doesNotExist();
+        assertThat(jobRepository.findById(recent.getId())).isPresent();
+        // 끝나지 않은 작업은 오래되어도 지우지 않음
+        assertThat(jobRepository.findById(waiting.getId())).isPresent();
+    }
+
+    private ModelGenerationJob saveJob(Status status, String inputPath, Instant updatedAt) {
+        ModelGenerationJob job = new ModelGenerationJob(UUID.randomUUID().toString(), 1L, "image.png", "image/png", null, inputPath);
+        job.setStatus(status);
+        job.setUpdatedAt(updatedAt);
+        return jobRepository.save(job);
+    }
+
+    private ModelGenerationJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ModelGenerationJob job = jobRepository.findById(jobId).orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("작업이 끝나지 않았습니다: " + jobId);
+    }
+
+    private static MockMultipartFile image(String fileName, String content) {
+        return new MockMultipartFile("file", fileName, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 요청 본문을 끝까지 읽은 뒤 다음 응답 코드로 응답
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        aiCalls.incrementAndGet();
+        Integer status = aiStatuses.poll();
+        if (status != null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(200, MODEL.length);
+            exchange.getResponseBody().write(MODEL);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.opensource.kemini_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 모델 캐시의 commit과 크기 제한 (S3는 사용하지 않음)
+ */
+class ModelResultCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void commit_oversizedModelIsHandedOffWithoutEvictingOthers() throws Exception {
+        ModelResultCache cache = new ModelResultCache(
+            new InMemoryS3Client(), new SimpleMeterRegistry(), Runnable::run, "test-bucket", cacheDir.toString(), 10, false);
+        commit(cache, "small", new byte[8]).release();
+
+        // 캐시 전체(10바이트)보다 큰 모델: 기다리던 요청에는 전달하되 캐시에는 넣지 않음
+        ModelResultCache.SharedModel large = commit(cache, "large", new byte[16]);
+        try (InputStream body = large.open().orElseThrow().body()) {
+            assertThat(body.readAllBytes()).hasSize(16);
+        }
+        large.release();
+
+        assertThat(cache.openCommitted("large")).isEmpty();
+        ModelResultCache.CachedModel small = cache.open("small").orElseThrow();
+        small.body().close();
+        assertThat(small.size()).isEqualTo(8);
+        assertThat(cacheDir.toFile().list()).containsExactly("small.glb");
+    }
+
+    private static ModelResultCache.SharedModel commit(ModelResultCache cache, String hash, byte[] model) {
+        ModelResultCache.Writer writer = cache.newWriter(hash);
+        writer.write(model, 0, model.length);
+        return writer.commit().orElseThrow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.opensource.kemini_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * prefix 아래 객체 일괄 삭제 (ListObjectsV2 1000개 페이지 → DeleteObjects)
+ */
+class S3ServiceTest {
+
+    private final InMemoryS3Client s3Client = new InMemoryS3Client();
+    private final S3Service s3Service = new S3Service(null, s3Client, "test-bucket", "ap-northeast-2");
+
+    @Test
+    void deleteAllUnderPrefix_followsContinuationTokensAndReportsEachPage() {
+        for (int i = 0; i < 2500; i++) {
+            s3Client.keys.add(String.format("users/1/%04d.dat", i));
+        }
+        s3Client.keys.add("users/10/keep.dat");
+        s3Client.keys.add("users/2/keep.dat");
+        List<Long> pages = new CopyOnWriteArrayList<>();
+
+        long deleted = s3Service.deleteAllUnderPrefix("users/1/", pages::add);
+
+        assertThat(deleted).isEqualTo(2500);
+        assertThat(pages).containsExactly(1000L, 1000L, 500L);
+        assertThat(s3Client.listCalls).hasValue(3);
+        assertThat(s3Client.keys).containsExactly("users/10/keep.dat", "users/2/keep.dat");
+    }
+
+    @Test
+    void deleteAllUnderPrefix_deletesRemainingPagesThenReportsFailedKeys() {
+        for (int i = 0; i < 1500; i++) {
+            s3Client.keys.add(String.format("users/1/%04d.dat", i));
+        }
+        s3Client.failingKeys.add("users/1/0001.dat");
+        s3Client.failingKeys.add("users/1/1499.dat");
+        List<Long> pages = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> s3Service.deleteAllUnderPrefix("users/1/", pages::add))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("2개 삭제 실패");
+
+        // 실패한 키만 남고, 다시 호출하면 남은 객체만 대상이 됨
+        assertThat(pages).containsExactly(999L, 499L);
+        assertThat(s3Client.keys).containsExactly("users/1/0001.dat", "users/1/1499.dat");
+
+        s3Client.failingKeys.clear();
+        pages.clear();
+        assertThat(s3Service.deleteAllUnderPrefix("users/1/", pages::add)).isEqualTo(2);
+        assertThat(s3Client.keys).isEmpty();
+    }
+}
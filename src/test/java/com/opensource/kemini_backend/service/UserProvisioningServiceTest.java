@@ -0,0 +1,216 @@
+package com.opensource.kemini_backend.service;
+
+import com.opensource.kemini_backend.config.AwsCognitoConfig;
+import com.opensource.kemini_backend.dto.BulkSignUpResultDto;
+import com.opensource.kemini_backend.dto.SignUpRequestDto;
+import com.opensource.kemini_backend.utility.CognitoSecretHashEngine;
+import com.opensource.kemini_backend.utility.SecurityAnswerHasher;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * 관리자 대량 등록의 재시도/보상 처리
+ * aws.cognito.endpoint를 로컬 Cognito 스텁 서버로 지정하고, users 테이블은 H2 메모리 DB 사용
+ */
+class UserProvisioningServiceTest {
+
+    private static final Pattern USERNAME = Pattern.compile("\"Username\"\\s*:\\s*\"([^\"]+)\"");
+
+    private HttpServer cognitoStub;
+    private final List<String> signedUp = new CopyOnWriteArrayList<>();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+    private final List<String> rejectedOnSignUp = new CopyOnWriteArrayList<>();
+
+    private CognitoIdentityProviderAsyncClient cognitoAsyncClient;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private EmailAvailabilityFilter emailAvailabilityFilter;
+    private SecurityAnswerHasher securityAnswerHasher;
+    private CognitoSecretHashEngine secretHashEngine;
+
+    @BeforeAll
+    static void fakeCredentials() {
+        // 스텁 서버는 서명을 검사하지 않지만, SDK는 자격 증명이 있어야 요청을 보냄
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+    }
+
+    @AfterAll
+    static void clearCredentials() {
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretAccessKey");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cognitoStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cognitoStub.createContext("/", this::handleCognito);
+        cognitoStub.start();
+
+        AwsCognitoConfig config = new AwsCognitoConfig();
+        ReflectionTestUtils.setField(config, "region", "ap-northeast-2");
+        ReflectionTestUtils.setField(config, "endpoint", "http://127.0.0.1:" + cognitoStub.getAddress().getPort());
+        cognitoAsyncClient = config.cognitoAsyncClient();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:provisioning-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE users (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                email VARCHAR(255) NOT NULL UNIQUE,
+                name VARCHAR(255),
+                phone_number VARCHAR(32),
+                ask_id BIGINT,
+                ask_answer_hash VARCHAR(64),
+                status VARCHAR(32)
+            )""");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        emailAvailabilityFilter = new EmailAvailabilityFilter(dataSource, new SimpleMeterRegistry(), 1000, 0.01, 1000);
+        securityAnswerHasher = new SecurityAnswerHasher("test-pepper");
+        secretHashEngine = new CognitoSecretHashEngine("test-client", "test-secret", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cognitoAsyncClient.close();
+        cognitoStub.stop(0);
+    }
+
+    @Test
+    void failedBatch_rollsBackAndRetriesPerRow_compensatingOnlyTheFailedRow() {
+        // Cognito에는 없지만 DB에는 이미 있는 이메일 → 배치 중간에서 중복 키로 실패
+        jdbcTemplate.update("INSERT INTO users (email, status) VALUES (?, ?)", "taken@example.com", "CONFIRMED");
+
+        BulkSignUpResultDto result = service(8, cognitoSignUpClient()).provision(List.of(
+            request("first@example.com"),
+            request("taken@example.com"),
+            request("second@example.com")));
+
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.results()).extracting(BulkSignUpResultDto.Item::success).containsExactly(true, false, true);
+        assertThat(result.results().get(1).message()).startsWith("DB 저장 실패");
+
+        // 배치가 롤백되지 않으면 first가 먼저 커밋되어 재시도에서 중복 키로 실패하고 Cognito 계정까지 삭제됨
+        assertThat(deleted).containsExactly("taken@example.com");
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users ORDER BY email", String.class))
+            .containsExactly("first@example.com", "second@example.com", "taken@example.com");
+        // 커밋된 사용자는 가입 여부 필터에 바로 반영
+        assertThat(emailAvailabilityFilter.mightExist("first@example.com")).isTrue();
+        assertThat(emailAvailabilityFilter.mightExist("second@example.com")).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT phone_number FROM users WHERE email = ?", String.class, "first@example.com"))
+            .isEqualTo("+821012345678");
+    }
+
+    @Test
+    void cognitoRejection_isReportedWithoutDatabaseRowOrCompensation() {
+        rejectedOnSignUp.add("exists@example.com");
+
+        BulkSignUpResultDto result = service(8, cognitoSignUpClient()).provision(List.of(
+            request("exists@example.com"),
+            request("fresh@example.com")));
+
+        assertThat(result.results()).extracting(BulkSignUpResultDto.Item::success).containsExactly(false, true);
+        assertThat(result.results().get(0).message()).startsWith("Cognito 등록 실패");
+        assertThat(deleted).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users", String.class))
+            .containsExactly("fresh@example.com");
+    }
+
+    @Test
+    void synchronousSubmitFailure_releasesPermit() {
+        // 요청을 만들다 바로 예외가 나는 경우 (동시 실행 1개라 허가가 새면 다음 건에서 멈춤)
+        CognitoSignUpClient failingFirst = new CognitoSignUpClient(cognitoAsyncClient, secretHashEngine) {
+            @Override
+            public CompletableFuture<Void> registerConfirmed(SignUpRequestDto request, String normalizedPhone) {
+                if (request.email().startsWith("broken")) {
+                    throw new IllegalStateException("요청 생성 실패");
+                }
+                return super.registerConfirmed(request, normalizedPhone);
+            }
+        };
+        configure(failingFirst);
+
+        BulkSignUpResultDto result = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+            service(1, failingFirst).provision(List.of(
+                request("broken@example.com"),
+                request("after@example.com"))));
+
+        assertThat(result.results()).extracting(BulkSignUpResultDto.Item::success).containsExactly(false, true);
+        assertThat(result.results().get(0).message()).isEqualTo("Cognito 등록 실패: 요청 생성 실패");
+        assertThat(signedUp).containsExactly("after@example.com");
+    }
+
+    private UserProvisioningService service(int concurrency, CognitoSignUpClient cognitoSignUpClient) {
+        return new UserProvisioningService(cognitoSignUpClient, emailAvailabilityFilter, securityAnswerHasher,
+            jdbcTemplate, transactionManager, concurrency, 100, 1000);
+    }
+
+    private CognitoSignUpClient cognitoSignUpClient() {
+        return configure(new CognitoSignUpClient(cognitoAsyncClient, secretHashEngine));
+    }
+
+    private static CognitoSignUpClient configure(CognitoSignUpClient client) {
+        ReflectionTestUtils.setField(client, "clientId", "test-client");
+        ReflectionTestUtils.setField(client, "userPoolId", "ap-northeast-2_test");
+        return client;
+    }
+
+    private static SignUpRequestDto request(String email) {
+        return new SignUpRequestDto(email, "Password1!", "테스트", "010-1234-5678", 1L, "서울 초등학교");
+    }
+
+    // Cognito JSON 프로토콜 (X-Amz-Target으로 작업 구분)
+    private void handleCognito(HttpExchange exchange) throws IOException {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher matcher = USERNAME.matcher(body);
+        String username = matcher.find() ? matcher.group(1) : "";
+
+        int status = 200;
+        String response = "{}";
+        if (target.endsWith(".SignUp")) {
+            if (rejectedOnSignUp.contains(username)) {
+                status = 400;
+                response = "{\"__type\":\"UsernameExistsException\",\"message\":\"User already exists\"}";
+            } else {
+                signedUp.add(username);
+                response = "{\"UserConfirmed\":false,\"UserSub\":\"" + UUID.randomUUID() + "\"}";
+            }
+        } else if (target.endsWith(".AdminDeleteUser")) {
+            deleted.add(username);
+        }
+
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}